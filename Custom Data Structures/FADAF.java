@@ -3,6 +3,7 @@
  */
 
 import java.util.*;
+import java.util.function.Predicate;
 
 /**
  * Hybrid data structure called FADAF (Fast Access DAF) that allows fast add, remove, lookup
@@ -19,6 +20,8 @@ public class FADAF<K extends Comparable<? super K>, D> {
     Iterator<DAFTree<K, D>.DAFNode<K, D>> iter; // Iterator for DAFTree which allows in-order
     // traversal
     HashTable<DAFTree<K, D>.DAFNode<K, D>> table; // HashTable instance to store DAFNodes
+    DefaultHashStrategy<Object> mixer; // seeded mixing of pair hash codes
+    PairMatcher matcher; // reusable predicate that probes the table for one pair
 
     /**
      * Constructor for FADAF.
@@ -31,7 +34,10 @@ public class FADAF<K extends Comparable<? super K>, D> {
         // Instantiate DAFTree and table with given capacity
         tree = new DAFTree<>();
         // IllegalArgumentException thrown by HashTable constructor if capacity < 10
-        table = new HashTable<>(capacity);
+        table = new HashTable<>(capacity, new PairStrategy());
+        // The table hashes its nodes with mixer, and lookups probe it with matcher
+        mixer = new DefaultHashStrategy<>();
+        matcher = new PairMatcher();
     }
 
     /**
@@ -64,10 +70,11 @@ public class FADAF<K extends Comparable<? super K>, D> {
      */
     public boolean insert(K key, D data) {
         // NullPointerException thrown by DAFTree insert if key or data is null
-        if (tree.insert(key, data) != null) {
-            // If inserting key and data into the DAFTree was successful, insert new instance
-            // of DAFNode with key and data into hash table
-            return table.insert(tree.new DAFNode<K, D>(key, data));
+        DAFTree<K, D>.DAFNode<K, D> node = tree.insert(key, data);
+        if (node != null) {
+            // If inserting key and data into the DAFTree was successful, store the tree's own
+            // node in the hash table rather than a copy of it
+            return table.insert(node);
         } else {
             // If insertion failed in tree, return false
             return false;
@@ -114,9 +121,11 @@ public class FADAF<K extends Comparable<? super K>, D> {
     public boolean remove(K key, D data) {
         // NullPointerException is thrown by DAFTree remove if key or data is null
         if (tree.remove(key, data)) {
-            // If removal from the tree was successful, remove from the hash table by creating a
-            // new instance of DAFNode and checking if an equal node exists in hash table
-            return table.delete(tree.new DAFNode<K, D>(key, data));
+            // If removal from the tree was successful, remove the node from the hash table by
+            // probing with the pair itself, no DAFNode is created
+            boolean removed = table.remove(pairHash(key, data), matcher.of(key, data)) != null;
+            matcher.clear();
+            return removed;
         } else {
             // If removal from DAFtree was unsuccessful, return false
             return false;
@@ -145,9 +154,26 @@ public class FADAF<K extends Comparable<? super K>, D> {
      * @throws NullPointerException if key or data is null
      */
     public boolean lookup(K key, D data) {
-        // Call lookup function of hash table
-        // Hash table lookup throws NullPointerException if key or data is null
-        return table.lookup(tree.new DAFNode<K, D>(key, data));
+        if (key == null || data == null) {
+            // Throws NullPointerException if key or data is null
+            throw new NullPointerException();
+        }
+
+        // Probe the hash table with the pair itself, so a lookup allocates nothing
+        boolean found = table.find(pairHash(key, data), matcher.of(key, data)) != null;
+        matcher.clear();
+        return found;
+    }
+
+    /**
+     * Hash of a key-data pair, the same hash the table's strategy gives the node holding it.
+     *
+     * @param key  key of the pair
+     * @param data data of the pair
+     * @return mixed hash of the pair
+     */
+    private int pairHash(Object key, Object data) {
+        return mixer.mix(31 * key.hashCode() + data.hashCode());
     }
 
     /**
@@ -204,4 +230,73 @@ public class FADAF<K extends Comparable<? super K>, D> {
         // the DAFTree
         return getAllKeys().getLast();
     }
+
+    /**
+     * Hashing and equality of the nodes in the hash table, by their key and data.
+     */
+    private final class PairStrategy implements HashStrategy<DAFTree<K, D>.DAFNode<K, D>> {
+        /**
+         * Returns the hash of the node's pair.
+         *
+         * @param node node to hash
+         * @return hash of the node
+         */
+        @Override
+        public int hash(DAFTree<K, D>.DAFNode<K, D> node) {
+            return pairHash(node.getKey(), node.getData());
+        }
+
+        /**
+         * Checks if two nodes hold equal pairs.
+         *
+         * @param a node being looked up
+         * @param b node stored in the table
+         * @return true if both key and data are equal, false otherwise
+         */
+        @Override
+        public boolean equals(DAFTree<K, D>.DAFNode<K, D> a, DAFTree<K, D>.DAFNode<K, D> b) {
+            return a.getKey().equals(b.getKey()) && a.getData().equals(b.getData());
+        }
+    }
+
+    /**
+     * Predicate accepting the node that holds one key-data pair. A single instance is reused
+     * by every lookup and remove, so probing the table never allocates.
+     */
+    private final class PairMatcher implements Predicate<DAFTree<K, D>.DAFNode<K, D>> {
+        private K key; // key of the pair being probed for
+        private D data; // data of the pair being probed for
+
+        /**
+         * Set the pair to match.
+         *
+         * @param key  key of the pair
+         * @param data data of the pair
+         * @return this matcher
+         */
+        PairMatcher of(K key, D data) {
+            this.key = key;
+            this.data = data;
+            return this;
+        }
+
+        /**
+         * Drop the pair, so the matcher does not keep it reachable after the probe.
+         */
+        void clear() {
+            key = null;
+            data = null;
+        }
+
+        /**
+         * Check if the node holds the pair.
+         *
+         * @param node node stored in the table
+         * @return true if both key and data are equal, false otherwise
+         */
+        @Override
+        public boolean test(DAFTree<K, D>.DAFNode<K, D> node) {
+            return key.equals(node.getKey()) && data.equals(node.getData());
+        }
+    }
 }
@@ -21,6 +21,29 @@ public class FADAFTest {
         assertEquals(0, stringTree.nUniqueKeys());
     }
 
+    @Test
+    public void testLookupAndRemoveWithEqualPairs() {
+        // Pairs are matched by equality, not by the objects they were inserted with
+        assertTrue(stringTree.insert(new String("Arjun"), 1000));
+        assertTrue(stringTree.insert("Arjun", 2000));
+        assertTrue(stringTree.lookup(new String("Arjun"), 1000));
+        assertFalse(stringTree.insert("Arjun", 1000));
+
+        for (int i = 0; i < 50; i++) {
+            assertTrue(stringTree.insert("Key" + i % 5, i));
+        }
+        for (int i = 0; i < 50; i += 2) {
+            assertTrue(stringTree.remove(new String("Key" + i % 5), i));
+        }
+        for (int i = 0; i < 50; i++) {
+            assertEquals(i % 2 == 1, stringTree.lookup("Key" + i % 5, i));
+        }
+        assertTrue(stringTree.remove("Arjun", 1000));
+        assertFalse(stringTree.lookup("Arjun", 1000));
+        assertTrue(stringTree.lookup("Arjun", 2000));
+        assertEquals(26, stringTree.size());
+    }
+
     @Test (expected = IllegalArgumentException.class)
     public void testConstructorThrowsIAE() {
         stringTree = new FADAF<>(8);
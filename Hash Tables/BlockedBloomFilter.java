@@ -0,0 +1,238 @@
+/*
+ * Name: Arjun Sawhney
+ */
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Bloom filter whose bits are grouped into blocks of 512 bits, the size of a cache line. The
+ * first half of a value's 128-bit hash picks one block and all k bits of the value are set
+ * inside it, so an insert or lookup reads a single block instead of k random places in the
+ * bit array. Values crowd unevenly into blocks, which costs a slightly higher false positive
+ * rate than a BloomFilter of the same size.
+ *
+ * The bits live in a direct buffer sliced to start on a 64-byte boundary rather than in a
+ * long[]. An array's 16-byte header would push every block across two cache lines, and the
+ * garbage collector is free to move an array, so its alignment could not be fixed anyway.
+ * A direct buffer never moves, so each block stays on exactly one line.
+ *
+ * @author Arjun Sawhney
+ * @since 06/05/2020
+ */
+public class BlockedBloomFilter {
+    // constants
+    public static final int BLOCK_BITS = 512; // bits per block, one cache line
+    private static final int BLOCK_WORDS = BLOCK_BITS / Long.SIZE; // longs per block
+    private static final int BLOCK_BYTES = BLOCK_BITS / Byte.SIZE; // bytes per block
+    private static final int BIT_MASK = BLOCK_BITS - 1; // bit index within a block
+    private static final long SEED = 0; // seed of the 128-bit hash
+
+    // instance variables
+    private final ByteBuffer bits; // blocks of BLOCK_BYTES bytes, each on one cache line
+    private final int blockCount; // number of blocks
+    private final int hashCount; // number of bits set per value
+
+    /**
+     * Constructor for a blocked bloom filter sized for the expected number of values and the
+     * wanted false positive rate, using the same m and k as a BloomFilter.
+     *
+     * @param expectedInsertions number of values expected to be inserted
+     * @param fpp                false positive rate wanted once they are all inserted
+     * @throws IllegalArgumentException if expectedInsertions is not positive, fpp is not
+     *                                  strictly between 0 and 1, or the bits would not fit
+     *                                  in a ByteBuffer
+     */
+    public BlockedBloomFilter(long expectedInsertions, double fpp) {
+        // IllegalArgumentException thrown by optimalWords if the parameters are out of range
+        int words = BloomFilter.optimalWords(expectedInsertions, fpp, BLOCK_WORDS);
+        if (words > (Integer.MAX_VALUE - BLOCK_BYTES) / Long.BYTES) {
+            // throws IllegalArgumentException if the aligned buffer cannot be allocated
+            throw new IllegalArgumentException();
+        }
+
+        // Over-allocate by one block so a block-aligned slice of the full size always fits
+        ByteBuffer raw = ByteBuffer.allocateDirect(words * Long.BYTES + BLOCK_BYTES - 1);
+        bits = raw.alignedSlice(BLOCK_BYTES).order(ByteOrder.nativeOrder());
+        blockCount = words / BLOCK_WORDS;
+        hashCount = BloomFilter.optimalHashCount(expectedInsertions, bitSize());
+    }
+
+    /**
+     * Insert the value into the bloom filter.
+     *
+     * @param value value to insert
+     * @return true if any bit changed, which means the value was definitely not present
+     *         before, false if it might have been
+     * @throws NullPointerException if value is null
+     */
+    public boolean insert(CharSequence value) {
+        if (value == null) {
+            // throws NullPointerException if value is null
+            throw new NullPointerException();
+        }
+
+        long[] hash = Murmur3.hash128(value, SEED, Murmur3.scratch());
+        return setBits(hash[0], hash[1]);
+    }
+
+    /**
+     * Insert the value given as a slice of bytes into the bloom filter.
+     *
+     * @param bytes  buffer holding the value
+     * @param offset index of the first byte of the value
+     * @param length number of bytes of the value
+     * @return true if any bit changed, which means the value was definitely not present
+     *         before, false if it might have been
+     * @throws NullPointerException      if bytes is null
+     * @throws IndexOutOfBoundsException if the slice is outside the buffer
+     */
+    public boolean insert(byte[] bytes, int offset, int length) {
+        // NullPointerException and IndexOutOfBoundsException thrown by Murmur3 hash128
+        long[] hash = Murmur3.hash128(bytes, offset, length, SEED, Murmur3.scratch());
+        return setBits(hash[0], hash[1]);
+    }
+
+    /**
+     * Insert the value given as a slice of a ByteBuffer into the bloom filter. The buffer's
+     * position and limit are not changed.
+     *
+     * @param bytes  buffer holding the value
+     * @param offset index of the first byte of the value
+     * @param length number of bytes of the value
+     * @return true if any bit changed, which means the value was definitely not present
+     *         before, false if it might have been
+     * @throws NullPointerException      if bytes is null
+     * @throws IndexOutOfBoundsException if the slice is outside the buffer
+     */
+    public boolean insert(ByteBuffer bytes, int offset, int length) {
+        // NullPointerException and IndexOutOfBoundsException thrown by Murmur3 hash128
+        long[] hash = Murmur3.hash128(bytes, offset, length, SEED, Murmur3.scratch());
+        return setBits(hash[0], hash[1]);
+    }
+
+    /**
+     * Check if the value might be in the bloom filter. There are no false negatives, only
+     * false positives.
+     *
+     * @param value value to search for
+     * @return true if every bit of the value is set, false if the value was never inserted
+     * @throws NullPointerException if value is null
+     */
+    public boolean lookup(CharSequence value) {
+        if (value == null) {
+            // throws NullPointerException if value is null
+            throw new NullPointerException();
+        }
+
+        long[] hash = Murmur3.hash128(value, SEED, Murmur3.scratch());
+        return testBits(hash[0], hash[1]);
+    }
+
+    /**
+     * Check if the value given as a slice of bytes might be in the bloom filter.
+     *
+     * @param bytes  buffer holding the value
+     * @param offset index of the first byte of the value
+     * @param length number of bytes of the value
+     * @return true if every bit of the value is set, false if the value was never inserted
+     * @throws NullPointerException      if bytes is null
+     * @throws IndexOutOfBoundsException if the slice is outside the buffer
+     */
+    public boolean lookup(byte[] bytes, int offset, int length) {
+        // NullPointerException and IndexOutOfBoundsException thrown by Murmur3 hash128
+        long[] hash = Murmur3.hash128(bytes, offset, length, SEED, Murmur3.scratch());
+        return testBits(hash[0], hash[1]);
+    }
+
+    /**
+     * Check if the value given as a slice of a ByteBuffer might be in the bloom filter. The
+     * buffer's position and limit are not changed.
+     *
+     * @param bytes  buffer holding the value
+     * @param offset index of the first byte of the value
+     * @param length number of bytes of the value
+     * @return true if every bit of the value is set, false if the value was never inserted
+     * @throws NullPointerException      if bytes is null
+     * @throws IndexOutOfBoundsException if the slice is outside the buffer
+     */
+    public boolean lookup(ByteBuffer bytes, int offset, int length) {
+        // NullPointerException and IndexOutOfBoundsException thrown by Murmur3 hash128
+        long[] hash = Murmur3.hash128(bytes, offset, length, SEED, Murmur3.scratch());
+        return testBits(hash[0], hash[1]);
+    }
+
+    /**
+     * Get the number of bits in the filter.
+     *
+     * @return number of bits m, a multiple of BLOCK_BITS
+     */
+    public long bitSize() {
+        return (long) blockCount * BLOCK_BITS;
+    }
+
+    /**
+     * Get the number of bits set per value.
+     *
+     * @return number of hash functions k
+     */
+    public int hashCount() {
+        return hashCount;
+    }
+
+    /**
+     * Set every bit of the value just hashed, all inside its block.
+     *
+     * @param h1 low half of the 128-bit Murmur3 hash of the value
+     * @param h2 high half of the 128-bit Murmur3 hash of the value
+     * @return true if any bit changed, false otherwise
+     */
+    private boolean setBits(long h1, long h2) {
+        int base = blockStart(h1);
+        int first = (int) h2;
+        int step = (int) (h2 >>> 32) | 1;
+        boolean changed = false;
+        for (int i = 0; i < hashCount; i++) {
+            int bit = (first + i * step) & BIT_MASK;
+            int word = base + (bit >>> 6) * Long.BYTES;
+            long mask = 1L << bit;
+            long old = bits.getLong(word);
+            changed |= (old & mask) == 0;
+            bits.putLong(word, old | mask);
+        }
+        return changed;
+    }
+
+    /**
+     * Check every bit of the value just hashed, all inside its block.
+     *
+     * @param h1 low half of the 128-bit Murmur3 hash of the value
+     * @param h2 high half of the 128-bit Murmur3 hash of the value
+     * @return true if every bit is set, false otherwise
+     */
+    private boolean testBits(long h1, long h2) {
+        int base = blockStart(h1);
+        int first = (int) h2;
+        int step = (int) (h2 >>> 32) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            int bit = (first + i * step) & BIT_MASK;
+            if ((bits.getLong(base + (bit >>> 6) * Long.BYTES) & (1L << bit)) == 0) {
+                // A single clear bit proves the value was never inserted
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * First byte of the block picked by the value just hashed. The block comes from the first
+     * half of the hash and the bits inside it from the second, so the two are independent.
+     *
+     * @param h1 low half of the 128-bit Murmur3 hash of the value
+     * @return byte index into bits
+     */
+    private int blockStart(long h1) {
+        // Multiply-shift maps 32 hash bits onto [0, blockCount) without a division
+        return (int) (((h1 >>> 32) * blockCount) >>> 32) * BLOCK_BYTES;
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Name: Arjun Sawhney
+ */
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+/**
+ * BlockedBloomFilter Tester Class
+ *
+ * @author Arjun Sawhney
+ * @since 06/05/2020
+ */
+public class BlockedBloomFilterTest {
+    BlockedBloomFilter filter = new BlockedBloomFilter(10000, 0.01);
+
+    @Test
+    public void testConstructor() {
+        // 95851 bits rounded up to whole 512-bit blocks
+        assertEquals(96256, filter.bitSize());
+        assertEquals(7, filter.hashCount());
+        assertEquals(512, new BlockedBloomFilter(1, 0.5).bitSize());
+    }
+
+    @Test
+    public void testInsert() {
+        for (int i = 0; i < 10000; i++) {
+            filter.insert("value" + i);
+            assertTrue(filter.lookup("value" + i));
+            assertFalse(filter.insert("value" + i));
+        }
+
+        // No false negatives once everything is inserted
+        for (int i = 0; i < 10000; i++) {
+            assertTrue(filter.lookup("value" + i));
+        }
+    }
+
+    @Test
+    public void testFalsePositiveRate() {
+        for (int i = 0; i < 10000; i++) {
+            filter.insert("value" + i);
+        }
+
+        // Blocking costs a little accuracy, but stays close to the target
+        int falsePositives = 0;
+        for (int i = 0; i < 100000; i++) {
+            if (filter.lookup("absent" + i)) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives > 500 && falsePositives < 2000);
+    }
+
+    @Test
+    public void testBytesAndStringsAreTheSameValue() {
+        byte[] framed = "[caf\u00E9]".getBytes(StandardCharsets.UTF_8);
+        assertTrue(filter.insert(framed, 1, framed.length - 2));
+        assertTrue(filter.lookup("caf\u00E9"));
+        assertTrue(filter.lookup(ByteBuffer.wrap(framed), 1, framed.length - 2));
+        assertTrue(filter.insert(ByteBuffer.wrap(framed), 0, 1));
+        assertTrue(filter.lookup("["));
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void testConstructorThrowsIAE() {
+        filter = new BlockedBloomFilter(100, 0);
+        fail("Exception not thrown.");
+    }
+
+    @Test (expected = NullPointerException.class)
+    public void testInsertThrowsNPE() {
+        filter.insert(null);
+        fail("Exception not thrown.");
+    }
+
+    @Test (expected = NullPointerException.class)
+    public void testLookupThrowsNPE() {
+        filter.lookup(null);
+        fail("Exception not thrown.");
+    }
+}
@@ -0,0 +1,273 @@
+/*
+ * Name: Arjun Sawhney
+ */
+
+import java.nio.ByteBuffer;
+
+/**
+ * Bloom filter over strings backed by a packed long[] bit array. Instead of a hand picked
+ * capacity and a fixed number of hash functions, the filter is sized from the number of
+ * values expected and the false positive rate wanted: it uses the optimal m = -n ln p / (ln 2)²
+ * bits and k = (m / n) ln 2 hash functions. The k bit indices come from a single 128-bit
+ * Murmur3 hash of the value, whose two halves are combined as h1 + i * h2, so a lookup costs
+ * one pass over the value plus k bit tests. Values can be given as a CharSequence or as a
+ * slice of bytes, and a string is the same value as its UTF-8 bytes. Lookups only read the
+ * filter, so any number of threads may run them at once while no insert is in progress.
+ *
+ * @author Arjun Sawhney
+ * @since 06/05/2020
+ */
+public class BloomFilter {
+    // constants
+    public static final int MAX_HASH_FUNCTIONS = 255; // most hash functions ever used
+    private static final long SEED = 0; // seed of the 128-bit hash
+
+    // instance variables
+    private final long[] bits; // bit array, 64 bits per long
+    private final long bitSize; // number of bits, a multiple of 64
+    private final int hashCount; // number of bits set per value
+    private long bitsSet; // number of bits that are set
+
+    /**
+     * Constructor for a bloom filter sized for the expected number of values and the wanted
+     * false positive rate.
+     *
+     * @param expectedInsertions number of values expected to be inserted
+     * @param fpp                false positive rate wanted once they are all inserted
+     * @throws IllegalArgumentException if expectedInsertions is not positive, fpp is not
+     *                                  strictly between 0 and 1, or the bit array would be
+     *                                  too large for a Java array
+     */
+    public BloomFilter(long expectedInsertions, double fpp) {
+        // IllegalArgumentException thrown by optimalWords if the parameters are out of range
+        bits = new long[optimalWords(expectedInsertions, fpp, 1)];
+        bitSize = (long) bits.length * Long.SIZE;
+        hashCount = optimalHashCount(expectedInsertions, bitSize);
+    }
+
+    /**
+     * Insert the value into the bloom filter.
+     *
+     * @param value value to insert
+     * @return true if any bit changed, which means the value was definitely not present
+     *         before, false if it might have been
+     * @throws NullPointerException if value is null
+     */
+    public boolean insert(CharSequence value) {
+        if (value == null) {
+            // throws NullPointerException if value is null
+            throw new NullPointerException();
+        }
+
+        long[] hash = Murmur3.hash128(value, SEED, Murmur3.scratch());
+        return setBits(hash[0], hash[1]);
+    }
+
+    /**
+     * Insert the value given as a slice of bytes into the bloom filter.
+     *
+     * @param bytes  buffer holding the value
+     * @param offset index of the first byte of the value
+     * @param length number of bytes of the value
+     * @return true if any bit changed, which means the value was definitely not present
+     *         before, false if it might have been
+     * @throws NullPointerException      if bytes is null
+     * @throws IndexOutOfBoundsException if the slice is outside the buffer
+     */
+    public boolean insert(byte[] bytes, int offset, int length) {
+        // NullPointerException and IndexOutOfBoundsException thrown by Murmur3 hash128
+        long[] hash = Murmur3.hash128(bytes, offset, length, SEED, Murmur3.scratch());
+        return setBits(hash[0], hash[1]);
+    }
+
+    /**
+     * Insert the value given as a slice of a ByteBuffer into the bloom filter. The buffer's
+     * position and limit are not changed.
+     *
+     * @param bytes  buffer holding the value
+     * @param offset index of the first byte of the value
+     * @param length number of bytes of the value
+     * @return true if any bit changed, which means the value was definitely not present
+     *         before, false if it might have been
+     * @throws NullPointerException      if bytes is null
+     * @throws IndexOutOfBoundsException if the slice is outside the buffer
+     */
+    public boolean insert(ByteBuffer bytes, int offset, int length) {
+        // NullPointerException and IndexOutOfBoundsException thrown by Murmur3 hash128
+        long[] hash = Murmur3.hash128(bytes, offset, length, SEED, Murmur3.scratch());
+        return setBits(hash[0], hash[1]);
+    }
+
+    /**
+     * Check if the value might be in the bloom filter. There are no false negatives, only
+     * false positives.
+     *
+     * @param value value to search for
+     * @return true if every bit of the value is set, false if the value was never inserted
+     * @throws NullPointerException if value is null
+     */
+    public boolean lookup(CharSequence value) {
+        if (value == null) {
+            // throws NullPointerException if value is null
+            throw new NullPointerException();
+        }
+
+        long[] hash = Murmur3.hash128(value, SEED, Murmur3.scratch());
+        return testBits(hash[0], hash[1]);
+    }
+
+    /**
+     * Check if the value given as a slice of bytes might be in the bloom filter.
+     *
+     * @param bytes  buffer holding the value
+     * @param offset index of the first byte of the value
+     * @param length number of bytes of the value
+     * @return true if every bit of the value is set, false if the value was never inserted
+     * @throws NullPointerException      if bytes is null
+     * @throws IndexOutOfBoundsException if the slice is outside the buffer
+     */
+    public boolean lookup(byte[] bytes, int offset, int length) {
+        // NullPointerException and IndexOutOfBoundsException thrown by Murmur3 hash128
+        long[] hash = Murmur3.hash128(bytes, offset, length, SEED, Murmur3.scratch());
+        return testBits(hash[0], hash[1]);
+    }
+
+    /**
+     * Check if the value given as a slice of a ByteBuffer might be in the bloom filter. The
+     * buffer's position and limit are not changed.
+     *
+     * @param bytes  buffer holding the value
+     * @param offset index of the first byte of the value
+     * @param length number of bytes of the value
+     * @return true if every bit of the value is set, false if the value was never inserted
+     * @throws NullPointerException      if bytes is null
+     * @throws IndexOutOfBoundsException if the slice is outside the buffer
+     */
+    public boolean lookup(ByteBuffer bytes, int offset, int length) {
+        // NullPointerException and IndexOutOfBoundsException thrown by Murmur3 hash128
+        long[] hash = Murmur3.hash128(bytes, offset, length, SEED, Murmur3.scratch());
+        return testBits(hash[0], hash[1]);
+    }
+
+    /**
+     * Get the number of bits in the filter.
+     *
+     * @return number of bits m
+     */
+    public long bitSize() {
+        return bitSize;
+    }
+
+    /**
+     * Get the number of bits set per value.
+     *
+     * @return number of hash functions k
+     */
+    public int hashCount() {
+        return hashCount;
+    }
+
+    /**
+     * Estimate the current false positive rate from the fraction of bits that are set.
+     *
+     * @return probability that lookup returns true for a value that was never inserted
+     */
+    public double expectedFpp() {
+        return Math.pow((double) bitsSet / bitSize, hashCount);
+    }
+
+    /**
+     * Number of longs holding the optimal m = -n ln p / (ln 2)² bits, rounded up to a whole
+     * number of blocks.
+     *
+     * @param expectedInsertions number of values expected to be inserted
+     * @param fpp                false positive rate wanted once they are all inserted
+     * @param blockWords         longs per block, the result is a multiple of it
+     * @return number of longs in the bit array
+     * @throws IllegalArgumentException if expectedInsertions is not positive, fpp is not
+     *                                  strictly between 0 and 1, or the bit array would be
+     *                                  too large for a Java array
+     */
+    static int optimalWords(long expectedInsertions, double fpp, int blockWords) {
+        if (expectedInsertions <= 0 || !(fpp > 0 && fpp < 1)) {
+            // throws IllegalArgumentException if the sizing parameters are out of range
+            throw new IllegalArgumentException();
+        }
+
+        double optimalBits = -expectedInsertions * Math.log(fpp) / (Math.log(2) * Math.log(2));
+        long blocks = (long) Math.ceil(Math.max(optimalBits, 1) / Long.SIZE / blockWords);
+        if (blocks * blockWords > Integer.MAX_VALUE - 8) {
+            // throws IllegalArgumentException if the bit array cannot be allocated
+            throw new IllegalArgumentException();
+        }
+        return (int) (blocks * blockWords);
+    }
+
+    /**
+     * Optimal number of hash functions k = (m / n) ln 2, between 1 and MAX_HASH_FUNCTIONS.
+     *
+     * @param expectedInsertions number of values expected to be inserted
+     * @param bitSize            number of bits m actually allocated
+     * @return number of hash functions
+     */
+    static int optimalHashCount(long expectedInsertions, long bitSize) {
+        long optimal = Math.round((double) bitSize / expectedInsertions * Math.log(2));
+        return (int) Math.max(1, Math.min(MAX_HASH_FUNCTIONS, optimal));
+    }
+
+    /**
+     * Set every bit of a hashed value. ScalableBloomFilter calls this directly so a value is
+     * hashed once for all of its stages.
+     *
+     * @param h1 low half of the 128-bit Murmur3 hash of the value
+     * @param h2 high half of the 128-bit Murmur3 hash of the value
+     * @return true if any bit changed, false otherwise
+     */
+    boolean setBits(long h1, long h2) {
+        boolean changed = false;
+        for (int i = 0; i < hashCount; i++) {
+            long index = bitIndex(h1, h2, i);
+            long mask = 1L << index;
+            int word = (int) (index >>> 6);
+            if ((bits[word] & mask) == 0) {
+                bits[word] |= mask;
+                bitsSet++;
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Check every bit of a hashed value.
+     *
+     * @param h1 low half of the 128-bit Murmur3 hash of the value
+     * @param h2 high half of the 128-bit Murmur3 hash of the value
+     * @return true if every bit is set, false otherwise
+     */
+    boolean testBits(long h1, long h2) {
+        for (int i = 0; i < hashCount; i++) {
+            long index = bitIndex(h1, h2, i);
+            if ((bits[(int) (index >>> 6)] & (1L << index)) == 0) {
+                // A single clear bit proves the value was never inserted
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Index of the i-th bit of a hashed value, by Kirsch-Mitzenmacher double hashing of the
+     * two halves of its 128-bit hash.
+     *
+     * @param h1 low half of the 128-bit Murmur3 hash of the value
+     * @param h2 high half of the 128-bit Murmur3 hash of the value
+     * @param i  number of the hash function
+     * @return bit index in [0, bitSize)
+     */
+    private long bitIndex(long h1, long h2, int i) {
+        // Flipping a negative combination keeps every bit of it, unlike taking its absolute value
+        long combined = h1 + i * h2;
+        return (combined < 0 ? ~combined : combined) % bitSize;
+    }
+}
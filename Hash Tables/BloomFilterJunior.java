@@ -2,6 +2,8 @@
  * Name: Arjun Sawhney
  */
 
+import java.nio.ByteBuffer;
+
 /**
  * An implementation of a bloom filter prototype.
  */
@@ -9,9 +11,8 @@ public class BloomFilterJunior {
 
     /* Constants */
     private static final int MIN_INIT_CAPACITY = 50;
-    private static final int HASH_THREE_LEFT_SHIFT = 8;
-    private static final int RIGHT_SHIFT = 27; // Horners hashing method
-    private static final int LEFT_SHIFT = 5; // Horners hashing method
+    private static final int NUM_HASHES = 3; // bits set per value
+    private static final long SEED = 0; // seed of the 128-bit hash
 
     /* Instance variables */
     private boolean[] table;
@@ -38,17 +39,47 @@ public class BloomFilterJunior {
      * @param value string to insert into bloom filter
      * @throws NullPointerException if value is null
      */
-    public void insert(String value) {
+    public void insert(CharSequence value) {
         if (value == null) {
             // throw ​NullPointerException​ if value is null
             throw new NullPointerException();
         }
 
-        // Set value at all three indices given by three hash functions to true
-        // Likelihood of false positive is there, but reduced since there are 3 hash functions
-        table[hashOne(value)] = true;
-        table[hashTwo(value)] = true;
-        table[hashThree(value)] = true;
+        // Hash the UTF-8 bytes of the value once, then set every index derived from the hash
+        long[] hash = Murmur3.hash128(value, SEED, Murmur3.scratch());
+        setIndices(hash[0], hash[1]);
+    }
+
+    /**
+     * Insert the value given as a slice of bytes in the BloomFilterJunior. A string and its
+     * UTF-8 bytes are the same value.
+     *
+     * @param bytes  buffer holding the value
+     * @param offset index of the first byte of the value
+     * @param length number of bytes of the value
+     * @throws NullPointerException      if bytes is null
+     * @throws IndexOutOfBoundsException if the slice is outside the buffer
+     */
+    public void insert(byte[] bytes, int offset, int length) {
+        // NullPointerException and IndexOutOfBoundsException thrown by Murmur3 hash128
+        long[] hash = Murmur3.hash128(bytes, offset, length, SEED, Murmur3.scratch());
+        setIndices(hash[0], hash[1]);
+    }
+
+    /**
+     * Insert the value given as a slice of a ByteBuffer in the BloomFilterJunior. The
+     * buffer's position and limit are not changed.
+     *
+     * @param bytes  buffer holding the value
+     * @param offset index of the first byte of the value
+     * @param length number of bytes of the value
+     * @throws NullPointerException      if bytes is null
+     * @throws IndexOutOfBoundsException if the slice is outside the buffer
+     */
+    public void insert(ByteBuffer bytes, int offset, int length) {
+        // NullPointerException and IndexOutOfBoundsException thrown by Murmur3 hash128
+        long[] hash = Murmur3.hash128(bytes, offset, length, SEED, Murmur3.scratch());
+        setIndices(hash[0], hash[1]);
     }
 
     /**
@@ -58,7 +89,7 @@ public class BloomFilterJunior {
      * @return boolean: true if value at all three indices is true, else false
      * @throws NullPointerException if value is null
      */
-    public boolean lookup(String value) {
+    public boolean lookup(CharSequence value) {
         if (value == null) {
             // throw ​NullPointerException​ if value is null
             throw new NullPointerException();
@@ -66,64 +97,83 @@ public class BloomFilterJunior {
 
         // Returns true if value at all three indices is true, else false
         // Can be no false negative, only false positives
-        return table[hashOne(value)] && table[hashTwo(value)] && table[hashThree(value)];
+        long[] hash = Murmur3.hash128(value, SEED, Murmur3.scratch());
+        return testIndices(hash[0], hash[1]);
     }
 
     /**
-     * Hash function 1.
+     * Check if the value given as a slice of bytes is a member of the BloomFilterJunior.
      *
-     * @param value string to hash
-     * @return hash value
+     * @param bytes  buffer holding the value
+     * @param offset index of the first byte of the value
+     * @param length number of bytes of the value
+     * @return boolean: true if value at all three indices is true, else false
+     * @throws NullPointerException      if bytes is null
+     * @throws IndexOutOfBoundsException if the slice is outside the buffer
      */
-    private int hashOne(String value) {
-        // Initialize value to 0
-        int hashVal = 0;
-
-        // Horner's hash function covered in lecture, depends on table capacity
-        for (int j = 0; j < value.length(); j++) {
-            int letter = value.charAt(j);
-            hashVal = (hashVal * RIGHT_SHIFT + letter) % table.length;
-        }
-
-        // Return the index of first hash function
-        return hashVal;
+    public boolean lookup(byte[] bytes, int offset, int length) {
+        // NullPointerException and IndexOutOfBoundsException thrown by Murmur3 hash128
+        long[] hash = Murmur3.hash128(bytes, offset, length, SEED, Murmur3.scratch());
+        return testIndices(hash[0], hash[1]);
     }
 
     /**
-     * Hash function 2.
+     * Check if the value given as a slice of a ByteBuffer is a member of the
+     * BloomFilterJunior. The buffer's position and limit are not changed.
      *
-     * @param value string to hash
-     * @return hash value
+     * @param bytes  buffer holding the value
+     * @param offset index of the first byte of the value
+     * @param length number of bytes of the value
+     * @return boolean: true if value at all three indices is true, else false
+     * @throws NullPointerException      if bytes is null
+     * @throws IndexOutOfBoundsException if the slice is outside the buffer
      */
-    private int hashTwo(String value) {
-        // Initialize hash index to 0
-        int hashVal = 0;
-
-        // Simplified CRC hash algorithm covered in lecture involves shifting bits
-        for (int i = 0; i < value.length(); i++) {
-            int leftShiftedVal = hashVal << LEFT_SHIFT;
-            int rightShiftedVal = hashVal >>> RIGHT_SHIFT;
+    public boolean lookup(ByteBuffer bytes, int offset, int length) {
+        // NullPointerException and IndexOutOfBoundsException thrown by Murmur3 hash128
+        long[] hash = Murmur3.hash128(bytes, offset, length, SEED, Murmur3.scratch());
+        return testIndices(hash[0], hash[1]);
+    }
 
-            hashVal = (leftShiftedVal | rightShiftedVal) ^ value.charAt(i);
+    /**
+     * Set the table at every index of the value just hashed.
+     *
+     * @param h1 low half of the 128-bit Murmur3 hash of the value
+     * @param h2 high half of the 128-bit Murmur3 hash of the value
+     */
+    private void setIndices(long h1, long h2) {
+        for (int i = 0; i < NUM_HASHES; i++) {
+            table[index(h1, h2, i)] = true;
         }
-
-        // Return absolute value of the index, depends on capacity of HashTable
-        return Math.abs(hashVal % table.length);
     }
 
     /**
-     * Hash function 3.
+     * Check the table at every index of the value just hashed.
      *
-     * @param value string to hash
-     * @return hash value
+     * @param h1 low half of the 128-bit Murmur3 hash of the value
+     * @param h2 high half of the 128-bit Murmur3 hash of the value
+     * @return true if the table is set at every index, else false
      */
-    private int hashThree(String value) {
-        // Base-256 String
-        int hash = 0;
-        char[] chars = value.toCharArray();
-        for (char c : chars) {
-            hash = ((hash << HASH_THREE_LEFT_SHIFT) + c) % table.length;
+    private boolean testIndices(long h1, long h2) {
+        for (int i = 0; i < NUM_HASHES; i++) {
+            if (!table[index(h1, h2, i)]) {
+                return false;
+            }
         }
-        return Math.abs(hash % table.length);
+        return true;
+    }
+
+    /**
+     * Index of the i-th hash function, derived from the two halves of the 128-bit hash by
+     * Kirsch-Mitzenmacher double hashing: h1 + i * h2 behaves like independent hashes.
+     *
+     * @param h1 low half of the 128-bit hash of the value
+     * @param h2 high half of the 128-bit hash of the value
+     * @param i  number of the hash function
+     * @return index into the table
+     */
+    private int index(long h1, long h2, int i) {
+        long combined = h1 + i * h2;
+        // Flipping a negative combination keeps it in range without the bias of Math.abs
+        return (int) ((combined < 0 ? ~combined : combined) % table.length);
     }
 }
@@ -0,0 +1,143 @@
+/*
+ * Name: Arjun Sawhney
+ */
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * BloomFilter Tester Class
+ *
+ * @author Arjun Sawhney
+ * @since 06/05/2020
+ */
+public class BloomFilterTest {
+    BloomFilter filter = new BloomFilter(10000, 0.01);
+
+    @Test
+    public void testConstructor() {
+        // m = -10000 ln 0.01 / (ln 2)² = 95851 bits, rounded up to whole longs
+        assertEquals(95872, filter.bitSize());
+        assertEquals(7, filter.hashCount());
+        assertEquals(0, filter.expectedFpp(), 0);
+
+        assertEquals(64, new BloomFilter(1, 0.5).bitSize());
+        assertEquals(1, new BloomFilter(1000, 0.9).hashCount());
+    }
+
+    @Test
+    public void testInsert() {
+        // A new value only leaves every bit unchanged if it was a false positive
+        int changed = 0;
+        for (int i = 0; i < 10000; i++) {
+            if (filter.insert("value" + i)) {
+                changed++;
+            }
+            assertTrue(filter.lookup("value" + i));
+            assertFalse(filter.insert("value" + i));
+        }
+        assertTrue(changed > 9900);
+
+        // No false negatives once everything is inserted
+        for (int i = 0; i < 10000; i++) {
+            assertTrue(filter.lookup("value" + i));
+        }
+        assertEquals(0.01, filter.expectedFpp(), 0.002);
+    }
+
+    @Test
+    public void testFalsePositiveRate() {
+        for (int i = 0; i < 10000; i++) {
+            filter.insert("value" + i);
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100000; i++) {
+            if (filter.lookup("absent" + i)) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives > 500 && falsePositives < 1500);
+    }
+
+    @Test
+    public void testBytesAndStringsAreTheSameValue() {
+        byte[] utf8 = "caf\u00E9".getBytes(StandardCharsets.UTF_8);
+        assertTrue(filter.insert(utf8, 0, utf8.length));
+        assertTrue(filter.lookup("caf\u00E9"));
+        assertTrue(filter.lookup(new StringBuilder("caf\u00E9")));
+
+        byte[] framed = "[caf\u00E9][t\u00E9]".getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.wrap(framed);
+        assertTrue(filter.lookup(buffer, 1, utf8.length));
+        assertFalse(filter.insert(framed, 1, utf8.length));
+        assertTrue(filter.insert(buffer, utf8.length + 3, 3));
+        assertTrue(filter.lookup("t\u00E9"));
+        assertEquals(0, buffer.position());
+    }
+
+    @Test
+    public void testConcurrentLookups() throws InterruptedException {
+        final int nThreads = 8;
+        final int nValues = 100000;
+        final BloomFilter shared = new BloomFilter(nValues, 0.01);
+        for (int i = 0; i < nValues; i++) {
+            shared.insert("value" + i);
+        }
+        final AtomicInteger misses = new AtomicInteger();
+        final CountDownLatch start = new CountDownLatch(1);
+        Thread[] threads = new Thread[nThreads];
+
+        // Lookups only read the filter, so threads running them at once never see a false negative
+        for (int t = 0; t < nThreads; t++) {
+            threads[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < nValues; i++) {
+                    if (!shared.lookup("value" + i)) {
+                        misses.incrementAndGet();
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(0, misses.get());
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void testConstructorThrowsIAE() {
+        filter = new BloomFilter(0, 0.01);
+        fail("Exception not thrown.");
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void testConstructorWithFppThrowsIAE() {
+        filter = new BloomFilter(100, 1);
+        fail("Exception not thrown.");
+    }
+
+    @Test (expected = NullPointerException.class)
+    public void testInsertThrowsNPE() {
+        filter.insert(null);
+        fail("Exception not thrown.");
+    }
+
+    @Test (expected = NullPointerException.class)
+    public void testLookupThrowsNPE() {
+        filter.lookup(null);
+        fail("Exception not thrown.");
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Name: Arjun Sawhney
+ */
+
+import java.nio.ByteBuffer;
+
+/**
+ * KeyCodec for byte[] keys that all have the same length.
+ *
+ * @author Arjun Sawhney
+ * @since 06/05/2020
+ */
+public class BytesKeyCodec implements KeyCodec<byte[]> {
+    // instance variables
+    private final int width; // length of every key
+
+    /**
+     * Initializes a codec for keys of the given length.
+     *
+     * @param width length of every key in bytes
+     * @throws IllegalArgumentException if width is not positive
+     */
+    public BytesKeyCodec(int width) {
+        if (width < 1) {
+            // throws IllegalArgumentException if width is not positive
+            throw new IllegalArgumentException();
+        }
+        this.width = width;
+    }
+
+    /**
+     * Returns the number of bytes every encoded key occupies.
+     *
+     * @return encoded width in bytes
+     */
+    @Override
+    public int width() {
+        return width;
+    }
+
+    /**
+     * Writes the key into buf starting at offset.
+     *
+     * @param key    key to encode
+     * @param buf    destination buffer
+     * @param offset absolute index of the first byte to write
+     * @throws IllegalArgumentException if the key does not have the codec's length
+     */
+    @Override
+    public void encode(byte[] key, ByteBuffer buf, int offset) {
+        if (key.length != width) {
+            // throws IllegalArgumentException if the key does not fit the fixed width
+            throw new IllegalArgumentException();
+        }
+        for (int i = 0; i < width; i++) {
+            buf.put(offset + i, key[i]);
+        }
+    }
+
+    /**
+     * Reads a key back from buf starting at offset.
+     *
+     * @param buf    source buffer
+     * @param offset absolute index of the first byte to read
+     * @return decoded key
+     */
+    @Override
+    public byte[] decode(ByteBuffer buf, int offset) {
+        byte[] key = new byte[width];
+        for (int i = 0; i < width; i++) {
+            key[i] = buf.get(offset + i);
+        }
+        return key;
+    }
+}
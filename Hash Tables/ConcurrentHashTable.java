@@ -0,0 +1,336 @@
+/*
+ * Name: Arjun Sawhney
+ */
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Thread-safe generic HashTable that shards its buckets across lock stripes. Each stripe is an
+ * independent segment with its own lock and bucket array, so writers only contend when they hit
+ * the same stripe, and lookups never take a lock at all.
+ *
+ * @param <T> Generic type of value
+ * @author Arjun Sawhney
+ * @since 06/05/2020
+ */
+public class ConcurrentHashTable<T> implements HashTableInterface<T> {
+    // constants
+    public static final int RESIZE_FACTOR = HashTable.RESIZE_FACTOR; // resize factor
+    public static final int MIN_CAPACITY = HashTable.MIN_CAPACITY; // minimum initial capacity
+    public static final double MAX_LOAD_FACTOR = HashTable.MAX_LOAD_FACTOR; // maximum load factor
+    public static final int DEFAULT_STRIPES = 64; // default number of lock stripes
+    private static final int MIN_SEGMENT_CAPACITY = 2; // minimum buckets per stripe
+    private static final int GOLDEN_RATIO = 0x9E3779B9; // multiplier used to spread hash codes
+
+    // instance variables
+    private final Segment<T>[] segments; // lock stripes
+    private final int segmentShift; // shift that selects a stripe from the top hash bits
+
+    /**
+     * Immutable-value chain node. Only next is ever rewritten, and always under the stripe lock.
+     *
+     * @param <T> Generic type of value
+     */
+    private static final class Node<T> {
+        final int hash;
+        final T value;
+        volatile Node<T> next;
+
+        /**
+         * Initializes a Node.
+         *
+         * @param hash  spread hash of the value
+         * @param value value held by the node
+         * @param next  next node in the bucket
+         */
+        Node(int hash, T value, Node<T> next) {
+            this.hash = hash;
+            this.value = value;
+            this.next = next;
+        }
+    }
+
+    /**
+     * One lock stripe: a chained hash table guarded by its own lock. The bucket array is
+     * replaced, never resized in place, so readers always see a consistent array.
+     *
+     * @param <T> Generic type of value
+     */
+    @SuppressWarnings("serial")
+    private static final class Segment<T> extends ReentrantLock {
+        volatile AtomicReferenceArray<Node<T>> buckets;
+        volatile int count;
+
+        /**
+         * Initializes an empty Segment.
+         *
+         * @param capacity number of buckets, a power of two
+         */
+        Segment(int capacity) {
+            buckets = new AtomicReferenceArray<>(capacity);
+        }
+
+        /**
+         * Find the node holding the given value without locking.
+         *
+         * @param value value to find
+         * @param hash  spread hash of the value
+         * @return node holding the value, or null if not found
+         */
+        Node<T> find(Object value, int hash) {
+            AtomicReferenceArray<Node<T>> tab = buckets;
+            Node<T> node = tab.get(hash & (tab.length() - 1));
+            while (node != null) {
+                if (node.hash == hash && value.equals(node.value)) {
+                    return node;
+                }
+                node = node.next;
+            }
+            return null;
+        }
+
+        /**
+         * Insert the value unless an equal value is already stored.
+         *
+         * @param value value to insert
+         * @param hash  spread hash of the value
+         * @return true if inserted, false if already present
+         */
+        boolean insert(T value, int hash) {
+            lock();
+            try {
+                if (find(value, hash) != null) {
+                    return false;
+                }
+                if ((double) (count + 1) / buckets.length() > MAX_LOAD_FACTOR) {
+                    rehash();
+                }
+
+                // Publish the new node at the head of its bucket, readers see it or they don't
+                AtomicReferenceArray<Node<T>> tab = buckets;
+                int index = hash & (tab.length() - 1);
+                tab.set(index, new Node<>(hash, value, tab.get(index)));
+                count++;
+                return true;
+            } finally {
+                unlock();
+            }
+        }
+
+        /**
+         * Delete the given value.
+         *
+         * @param value value to delete
+         * @param hash  spread hash of the value
+         * @return true if deleted, false if not found
+         */
+        boolean delete(Object value, int hash) {
+            lock();
+            try {
+                AtomicReferenceArray<Node<T>> tab = buckets;
+                int index = hash & (tab.length() - 1);
+                Node<T> prev = null;
+                Node<T> node = tab.get(index);
+
+                while (node != null) {
+                    if (node.hash == hash && value.equals(node.value)) {
+                        // Unlink with a single volatile write, readers already past prev still
+                        // see a valid chain through node.next
+                        if (prev == null) {
+                            tab.set(index, node.next);
+                        } else {
+                            prev.next = node.next;
+                        }
+                        count--;
+                        return true;
+                    }
+                    prev = node;
+                    node = node.next;
+                }
+                return false;
+            } finally {
+                unlock();
+            }
+        }
+
+        /**
+         * Double the bucket array of this stripe. Nodes are copied rather than relinked so that
+         * readers still walking the old chains are never disturbed.
+         */
+        private void rehash() {
+            AtomicReferenceArray<Node<T>> oldTab = buckets;
+            AtomicReferenceArray<Node<T>> newTab =
+                    new AtomicReferenceArray<>(oldTab.length() * RESIZE_FACTOR);
+            int mask = newTab.length() - 1;
+
+            for (int i = 0; i < oldTab.length(); i++) {
+                for (Node<T> node = oldTab.get(i); node != null; node = node.next) {
+                    int index = node.hash & mask;
+                    newTab.set(index, new Node<>(node.hash, node.value, newTab.get(index)));
+                }
+            }
+
+            // Swap in the new array with a volatile write once it is fully built
+            buckets = newTab;
+        }
+    }
+
+    /**
+     * Constructor for concurrent hash table with the default number of stripes.
+     *
+     * @param capacity initial total capacity
+     * @throws IllegalArgumentException if capacity is less than the minimum
+     *                                  threshold
+     */
+    public ConcurrentHashTable(int capacity) {
+        this(capacity, DEFAULT_STRIPES);
+    }
+
+    /**
+     * Constructor for concurrent hash table.
+     *
+     * @param capacity initial total capacity
+     * @param stripes  number of lock stripes, rounded up to a power of two
+     * @throws IllegalArgumentException if capacity is less than the minimum
+     *                                  threshold or stripes is not positive
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    public ConcurrentHashTable(int capacity, int stripes) {
+        if (capacity < MIN_CAPACITY || stripes < 1) {
+            // throws IllegalArgumentException if capacity is less than the minimum threshold
+            throw new IllegalArgumentException();
+        }
+
+        // Round the stripe count up to a power of two so a stripe is picked by the top bits
+        int nSegments = 1;
+        while (nSegments < stripes) {
+            nSegments <<= 1;
+        }
+        segmentShift = Integer.SIZE - Integer.numberOfTrailingZeros(nSegments);
+
+        // Split the requested capacity evenly across the stripes
+        int perSegment = MIN_SEGMENT_CAPACITY;
+        while (perSegment * nSegments < capacity) {
+            perSegment <<= 1;
+        }
+
+        segments = new Segment[nSegments];
+        for (int i = 0; i < nSegments; i++) {
+            segments[i] = new Segment<>(perSegment);
+        }
+    }
+
+    /**
+     * Insert the value into the hash table.
+     *
+     * @param value value to insert
+     * @return true if the value was inserted, false if the value was already
+     *         present
+     * @throws NullPointerException if the value is null
+     */
+    @Override
+    public boolean insert(T value) {
+        if (value == null) {
+            // throws NullPointerException if the value is null
+            throw new NullPointerException();
+        }
+        int hash = hashValue(value);
+        return segmentFor(hash).insert(value, hash);
+    }
+
+    /**
+     * Delete the given value from the hash table.
+     *
+     * @param value value to delete
+     * @return true if the value was deleted, false if the value was not found
+     * @throws NullPointerException if the value is null
+     */
+    @Override
+    public boolean delete(T value) {
+        if (value == null) {
+            // throws NullPointerException if the value is null
+            throw new NullPointerException();
+        }
+        int hash = hashValue(value);
+        return segmentFor(hash).delete(value, hash);
+    }
+
+    /**
+     * Check if the given value is present in the hash table. Never blocks.
+     *
+     * @param value value to look up
+     * @return true if the value was found, false if the value was not found
+     * @throws NullPointerException if the value is null
+     */
+    @Override
+    public boolean lookup(T value) {
+        if (value == null) {
+            // throws NullPointerException if the value is null
+            throw new NullPointerException();
+        }
+        int hash = hashValue(value);
+        return segmentFor(hash).find(value, hash) != null;
+    }
+
+    /**
+     * Get the total number of elements stored in the hash table. Under concurrent updates
+     * this is a moment-in-time sum over the stripes.
+     *
+     * @return total number of elements
+     */
+    @Override
+    public int size() {
+        int size = 0;
+        for (Segment<T> segment : segments) {
+            size += segment.count;
+        }
+        return size;
+    }
+
+    /**
+     * Get the capacity of the hash table, the total number of buckets across all stripes.
+     *
+     * @return capacity
+     */
+    @Override
+    public int capacity() {
+        int capacity = 0;
+        for (Segment<T> segment : segments) {
+            capacity += segment.buckets.length();
+        }
+        return capacity;
+    }
+
+    /**
+     * Get the number of lock stripes.
+     *
+     * @return number of stripes
+     */
+    public int stripes() {
+        return segments.length;
+    }
+
+    /**
+     * Hash function calculated by the hash code of value. The hash code is multiplied so that
+     * both the top bits (stripe) and the bottom bits (bucket) depend on every input bit.
+     *
+     * @param value input
+     * @return spread hash of the value
+     */
+    private static int hashValue(Object value) {
+        int hash = value.hashCode() * GOLDEN_RATIO;
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Stripe responsible for the given hash.
+     *
+     * @param hash spread hash
+     * @return stripe owning the hash
+     */
+    private Segment<T> segmentFor(int hash) {
+        // With a single stripe the shift is 32, which Java treats as 0, so mask explicitly
+        return segments[(hash >>> segmentShift) & (segments.length - 1)];
+    }
+}
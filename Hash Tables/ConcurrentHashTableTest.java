@@ -0,0 +1,107 @@
+/*
+ * Name: Arjun Sawhney
+ */
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * ConcurrentHashTable Tester Class
+ *
+ * @author Arjun Sawhney
+ * @since 06/05/2020
+ */
+public class ConcurrentHashTableTest {
+    ConcurrentHashTable<Integer> hashTable = new ConcurrentHashTable<>(12, 4);
+
+    @Test
+    public void testConstructor() {
+        assertEquals(0, hashTable.size());
+        assertEquals(4, hashTable.stripes());
+        assertEquals(16, hashTable.capacity());
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void testConstructorThrowsIAE() {
+        hashTable = new ConcurrentHashTable<>(8);
+        fail("Exception not thrown.");
+    }
+
+    @Test
+    public void testInsertAndDelete() {
+        for (int i = 1; i <= 100; i++) {
+            assertFalse(hashTable.lookup(i));
+            assertTrue(hashTable.insert(i));
+            assertTrue(hashTable.lookup(i));
+            assertFalse(hashTable.insert(i));
+            assertEquals(i, hashTable.size());
+        }
+
+        for (int i = 100; i > 0; i--) {
+            assertTrue(hashTable.delete(i));
+            assertFalse(hashTable.delete(i));
+            assertFalse(hashTable.lookup(i));
+            assertEquals(i - 1, hashTable.size());
+        }
+    }
+
+    @Test
+    public void testNoLostUpdates() throws InterruptedException {
+        final int nThreads = 8;
+        final int perThread = 20000;
+        final ConcurrentHashTable<Integer> shared = new ConcurrentHashTable<>(10);
+        final AtomicInteger wins = new AtomicInteger();
+        final CountDownLatch start = new CountDownLatch(1);
+        Thread[] threads = new Thread[nThreads];
+
+        // Every thread races to insert the same values, each value must be won exactly once
+        for (int t = 0; t < nThreads; t++) {
+            threads[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < perThread; i++) {
+                    if (shared.insert(i)) {
+                        wins.incrementAndGet();
+                    }
+                    assertTrue(shared.lookup(i));
+                }
+            });
+            threads[t].start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(perThread, wins.get());
+        assertEquals(perThread, shared.size());
+        for (int i = 0; i < perThread; i++) {
+            assertTrue(shared.lookup(i));
+        }
+    }
+
+    @Test (expected = NullPointerException.class)
+    public void testInsertThrowsNPE() {
+        hashTable.insert(null);
+        fail("Exception not thrown.");
+    }
+
+    @Test (expected = NullPointerException.class)
+    public void testLookUpThrowsNPE() {
+        hashTable.lookup(null);
+        fail("Exception not thrown.");
+    }
+
+    @Test (expected = NullPointerException.class)
+    public void testDeleteThrowsNPE() {
+        hashTable.delete(null);
+        fail("Exception not thrown.");
+    }
+}
@@ -0,0 +1,349 @@
+/*
+ * Name: Arjun Sawhney
+ */
+
+import java.nio.ByteBuffer;
+
+/**
+ * Bloom filter that keeps a 4-bit counter instead of a bit, so values can be deleted again.
+ * Sixteen counters are packed into every long. Inserting a value increments its k counters
+ * and deleting it decrements them, and a value is present while all of its counters are
+ * non-zero. A counter that reaches MAX_COUNT saturates and is never decremented again, since
+ * its true count is no longer known, which keeps deletes from ever causing false negatives.
+ * Sizing and hashing are the same as for BloomFilter, at four times the memory.
+ *
+ * @author Arjun Sawhney
+ * @since 06/05/2020
+ */
+public class CountingBloomFilter {
+    // constants
+    public static final int MAX_COUNT = 15; // value of a saturated counter
+    private static final int COUNTER_BITS = 4; // bits per counter
+    private static final int COUNTERS_PER_WORD = Long.SIZE / COUNTER_BITS; // counters per long
+    private static final long SEED = 0; // seed of the 128-bit hash
+
+    // instance variables
+    private final long[] counters; // counters, COUNTERS_PER_WORD per long
+    private final long counterCount; // number of counters m
+    private final int hashCount; // number of counters per value
+
+    /**
+     * Constructor for a counting bloom filter sized for the expected number of values and the
+     * wanted false positive rate, with one counter where a BloomFilter has one bit.
+     *
+     * @param expectedInsertions number of values expected to be present at once
+     * @param fpp                false positive rate wanted while they are present
+     * @throws IllegalArgumentException if expectedInsertions is not positive, fpp is not
+     *                                  strictly between 0 and 1, or the counter array would
+     *                                  be too large for a Java array
+     */
+    public CountingBloomFilter(long expectedInsertions, double fpp) {
+        // Every bit of a BloomFilter becomes a counter, taking COUNTER_BITS times the longs.
+        // IllegalArgumentException thrown by optimalWords if the parameters are out of range
+        long words = (long) BloomFilter.optimalWords(expectedInsertions, fpp, 1) * COUNTER_BITS;
+        if (words > Integer.MAX_VALUE - 8) {
+            // throws IllegalArgumentException if the counter array cannot be allocated
+            throw new IllegalArgumentException();
+        }
+        counters = new long[(int) words];
+        counterCount = words * COUNTERS_PER_WORD;
+        hashCount = BloomFilter.optimalHashCount(expectedInsertions, counterCount);
+    }
+
+    /**
+     * Insert the value into the bloom filter.
+     *
+     * @param value value to insert
+     * @return true if any counter was zero, which means the value was definitely not present
+     *         before, false if it might have been
+     * @throws NullPointerException if value is null
+     */
+    public boolean insert(CharSequence value) {
+        if (value == null) {
+            // throws NullPointerException if value is null
+            throw new NullPointerException();
+        }
+
+        long[] hash = Murmur3.hash128(value, SEED, Murmur3.scratch());
+        return increment(hash[0], hash[1]);
+    }
+
+    /**
+     * Insert the value given as a slice of bytes into the bloom filter.
+     *
+     * @param bytes  buffer holding the value
+     * @param offset index of the first byte of the value
+     * @param length number of bytes of the value
+     * @return true if any counter was zero, which means the value was definitely not present
+     *         before, false if it might have been
+     * @throws NullPointerException      if bytes is null
+     * @throws IndexOutOfBoundsException if the slice is outside the buffer
+     */
+    public boolean insert(byte[] bytes, int offset, int length) {
+        // NullPointerException and IndexOutOfBoundsException thrown by Murmur3 hash128
+        long[] hash = Murmur3.hash128(bytes, offset, length, SEED, Murmur3.scratch());
+        return increment(hash[0], hash[1]);
+    }
+
+    /**
+     * Insert the value given as a slice of a ByteBuffer into the bloom filter. The buffer's
+     * position and limit are not changed.
+     *
+     * @param bytes  buffer holding the value
+     * @param offset index of the first byte of the value
+     * @param length number of bytes of the value
+     * @return true if any counter was zero, which means the value was definitely not present
+     *         before, false if it might have been
+     * @throws NullPointerException      if bytes is null
+     * @throws IndexOutOfBoundsException if the slice is outside the buffer
+     */
+    public boolean insert(ByteBuffer bytes, int offset, int length) {
+        // NullPointerException and IndexOutOfBoundsException thrown by Murmur3 hash128
+        long[] hash = Murmur3.hash128(bytes, offset, length, SEED, Murmur3.scratch());
+        return increment(hash[0], hash[1]);
+    }
+
+    /**
+     * Delete one insertion of the value from the bloom filter. Only values that were inserted
+     * should be deleted, deleting a false positive removes counts belonging to other values.
+     *
+     * @param value value to delete
+     * @return true if the value was deleted, false if it was not present
+     * @throws NullPointerException if value is null
+     */
+    public boolean delete(CharSequence value) {
+        if (value == null) {
+            // throws NullPointerException if value is null
+            throw new NullPointerException();
+        }
+
+        long[] hash = Murmur3.hash128(value, SEED, Murmur3.scratch());
+        return decrement(hash[0], hash[1]);
+    }
+
+    /**
+     * Delete one insertion of the value given as a slice of bytes from the bloom filter.
+     *
+     * @param bytes  buffer holding the value
+     * @param offset index of the first byte of the value
+     * @param length number of bytes of the value
+     * @return true if the value was deleted, false if it was not present
+     * @throws NullPointerException      if bytes is null
+     * @throws IndexOutOfBoundsException if the slice is outside the buffer
+     */
+    public boolean delete(byte[] bytes, int offset, int length) {
+        // NullPointerException and IndexOutOfBoundsException thrown by Murmur3 hash128
+        long[] hash = Murmur3.hash128(bytes, offset, length, SEED, Murmur3.scratch());
+        return decrement(hash[0], hash[1]);
+    }
+
+    /**
+     * Delete one insertion of the value given as a slice of a ByteBuffer from the bloom
+     * filter. The buffer's position and limit are not changed.
+     *
+     * @param bytes  buffer holding the value
+     * @param offset index of the first byte of the value
+     * @param length number of bytes of the value
+     * @return true if the value was deleted, false if it was not present
+     * @throws NullPointerException      if bytes is null
+     * @throws IndexOutOfBoundsException if the slice is outside the buffer
+     */
+    public boolean delete(ByteBuffer bytes, int offset, int length) {
+        // NullPointerException and IndexOutOfBoundsException thrown by Murmur3 hash128
+        long[] hash = Murmur3.hash128(bytes, offset, length, SEED, Murmur3.scratch());
+        return decrement(hash[0], hash[1]);
+    }
+
+    /**
+     * Check if the value might be in the bloom filter. There are no false negatives, only
+     * false positives.
+     *
+     * @param value value to search for
+     * @return true if every counter of the value is non-zero, false if the value is not present
+     * @throws NullPointerException if value is null
+     */
+    public boolean lookup(CharSequence value) {
+        // count throws NullPointerException if value is null
+        return count(value) > 0;
+    }
+
+    /**
+     * Check if the value given as a slice of bytes might be in the bloom filter.
+     *
+     * @param bytes  buffer holding the value
+     * @param offset index of the first byte of the value
+     * @param length number of bytes of the value
+     * @return true if every counter of the value is non-zero, false if the value is not present
+     * @throws NullPointerException      if bytes is null
+     * @throws IndexOutOfBoundsException if the slice is outside the buffer
+     */
+    public boolean lookup(byte[] bytes, int offset, int length) {
+        return count(bytes, offset, length) > 0;
+    }
+
+    /**
+     * Check if the value given as a slice of a ByteBuffer might be in the bloom filter. The
+     * buffer's position and limit are not changed.
+     *
+     * @param bytes  buffer holding the value
+     * @param offset index of the first byte of the value
+     * @param length number of bytes of the value
+     * @return true if every counter of the value is non-zero, false if the value is not present
+     * @throws NullPointerException      if bytes is null
+     * @throws IndexOutOfBoundsException if the slice is outside the buffer
+     */
+    public boolean lookup(ByteBuffer bytes, int offset, int length) {
+        return count(bytes, offset, length) > 0;
+    }
+
+    /**
+     * Estimate how many times the value is present, as the smallest of its counters. The
+     * estimate is never too low, but other values sharing all of its counters make it high.
+     *
+     * @param value value to count
+     * @return approximate count, MAX_COUNT meaning MAX_COUNT or more
+     * @throws NullPointerException if value is null
+     */
+    public int count(CharSequence value) {
+        if (value == null) {
+            // throws NullPointerException if value is null
+            throw new NullPointerException();
+        }
+
+        long[] hash = Murmur3.hash128(value, SEED, Murmur3.scratch());
+        return minCount(hash[0], hash[1]);
+    }
+
+    /**
+     * Estimate how many times the value given as a slice of bytes is present.
+     *
+     * @param bytes  buffer holding the value
+     * @param offset index of the first byte of the value
+     * @param length number of bytes of the value
+     * @return approximate count, MAX_COUNT meaning MAX_COUNT or more
+     * @throws NullPointerException      if bytes is null
+     * @throws IndexOutOfBoundsException if the slice is outside the buffer
+     */
+    public int count(byte[] bytes, int offset, int length) {
+        // NullPointerException and IndexOutOfBoundsException thrown by Murmur3 hash128
+        long[] hash = Murmur3.hash128(bytes, offset, length, SEED, Murmur3.scratch());
+        return minCount(hash[0], hash[1]);
+    }
+
+    /**
+     * Estimate how many times the value given as a slice of a ByteBuffer is present. The
+     * buffer's position and limit are not changed.
+     *
+     * @param bytes  buffer holding the value
+     * @param offset index of the first byte of the value
+     * @param length number of bytes of the value
+     * @return approximate count, MAX_COUNT meaning MAX_COUNT or more
+     * @throws NullPointerException      if bytes is null
+     * @throws IndexOutOfBoundsException if the slice is outside the buffer
+     */
+    public int count(ByteBuffer bytes, int offset, int length) {
+        // NullPointerException and IndexOutOfBoundsException thrown by Murmur3 hash128
+        long[] hash = Murmur3.hash128(bytes, offset, length, SEED, Murmur3.scratch());
+        return minCount(hash[0], hash[1]);
+    }
+
+    /**
+     * Get the number of counters in the filter.
+     *
+     * @return number of counters m
+     */
+    public long counterCount() {
+        return counterCount;
+    }
+
+    /**
+     * Get the number of counters per value.
+     *
+     * @return number of hash functions k
+     */
+    public int hashCount() {
+        return hashCount;
+    }
+
+    /**
+     * Increment every counter of the value just hashed, stopping at MAX_COUNT.
+     *
+     * @param h1 low half of the 128-bit Murmur3 hash of the value
+     * @param h2 high half of the 128-bit Murmur3 hash of the value
+     * @return true if any counter was zero, false otherwise
+     */
+    private boolean increment(long h1, long h2) {
+        boolean wasAbsent = false;
+        for (int i = 0; i < hashCount; i++) {
+            long index = counterIndex(h1, h2, i);
+            int word = (int) (index / COUNTERS_PER_WORD);
+            int shift = (int) (index % COUNTERS_PER_WORD) * COUNTER_BITS;
+            long count = (counters[word] >>> shift) & MAX_COUNT;
+            wasAbsent |= count == 0;
+            if (count < MAX_COUNT) {
+                counters[word] += 1L << shift;
+            }
+        }
+        return wasAbsent;
+    }
+
+    /**
+     * Decrement every counter of the value just hashed, unless the value is not present.
+     * Saturated counters are left alone.
+     *
+     * @param h1 low half of the 128-bit Murmur3 hash of the value
+     * @param h2 high half of the 128-bit Murmur3 hash of the value
+     * @return true if the counters were decremented, false if the value is not present
+     */
+    private boolean decrement(long h1, long h2) {
+        if (minCount(h1, h2) == 0) {
+            // Decrementing counters of a value that is not present would corrupt other values
+            return false;
+        }
+
+        for (int i = 0; i < hashCount; i++) {
+            long index = counterIndex(h1, h2, i);
+            int word = (int) (index / COUNTERS_PER_WORD);
+            int shift = (int) (index % COUNTERS_PER_WORD) * COUNTER_BITS;
+            long count = (counters[word] >>> shift) & MAX_COUNT;
+            // A counter shared by several of the k indices may already be down to zero
+            if (count > 0 && count < MAX_COUNT) {
+                counters[word] -= 1L << shift;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Smallest counter of the value just hashed.
+     *
+     * @param h1 low half of the 128-bit Murmur3 hash of the value
+     * @param h2 high half of the 128-bit Murmur3 hash of the value
+     * @return smallest counter, 0 if the value is not present
+     */
+    private int minCount(long h1, long h2) {
+        int min = MAX_COUNT;
+        for (int i = 0; i < hashCount && min > 0; i++) {
+            long index = counterIndex(h1, h2, i);
+            long word = counters[(int) (index / COUNTERS_PER_WORD)];
+            min = Math.min(min, (int) (word >>> (index % COUNTERS_PER_WORD * COUNTER_BITS))
+                    & MAX_COUNT);
+        }
+        return min;
+    }
+
+    /**
+     * Index of the i-th counter of the value just hashed, by Kirsch-Mitzenmacher double
+     * hashing of the two halves of its 128-bit hash.
+     *
+     * @param h1 low half of the 128-bit Murmur3 hash of the value
+     * @param h2 high half of the 128-bit Murmur3 hash of the value
+     * @param i  number of the hash function
+     * @return counter index in [0, counterCount)
+     */
+    private long counterIndex(long h1, long h2, int i) {
+        // Flipping a negative combination keeps every bit of it, unlike taking its absolute value
+        long combined = h1 + i * h2;
+        return (combined < 0 ? ~combined : combined) % counterCount;
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Name: Arjun Sawhney
+ */
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+/**
+ * CountingBloomFilter Tester Class
+ *
+ * @author Arjun Sawhney
+ * @since 06/05/2020
+ */
+public class CountingBloomFilterTest {
+    CountingBloomFilter filter = new CountingBloomFilter(10000, 0.01);
+
+    @Test
+    public void testConstructor() {
+        // One counter for each of the 95872 bits a BloomFilter would use
+        assertEquals(95872, filter.counterCount());
+        assertEquals(7, filter.hashCount());
+        assertFalse(filter.lookup("value"));
+        assertEquals(0, filter.count("value"));
+    }
+
+    @Test
+    public void testInsertAndDelete() {
+        for (int i = 0; i < 10000; i++) {
+            filter.insert("value" + i);
+            assertTrue(filter.lookup("value" + i));
+        }
+
+        // Deleting half of the values leaves every other value present
+        for (int i = 0; i < 10000; i += 2) {
+            assertTrue(filter.delete("value" + i));
+        }
+        int stillPresent = 0;
+        for (int i = 0; i < 10000; i++) {
+            if (i % 2 == 1) {
+                assertTrue(filter.lookup("value" + i));
+            } else if (filter.lookup("value" + i)) {
+                stillPresent++;
+            }
+        }
+        assertTrue(stillPresent < 100);
+
+        // Deleting everything empties the filter
+        for (int i = 1; i < 10000; i += 2) {
+            assertTrue(filter.delete("value" + i));
+        }
+        for (int i = 0; i < 10000; i++) {
+            assertEquals(0, filter.count("value" + i));
+        }
+    }
+
+    @Test
+    public void testCount() {
+        for (int i = 0; i < 3; i++) {
+            filter.insert("value");
+        }
+        assertEquals(3, filter.count("value"));
+        assertTrue(filter.delete("value"));
+        assertEquals(2, filter.count("value"));
+        assertFalse(filter.delete("absent"));
+        assertEquals(2, filter.count("value"));
+    }
+
+    @Test
+    public void testSaturatedCountersStay() {
+        for (int i = 0; i < 20; i++) {
+            filter.insert("value");
+        }
+        assertEquals(CountingBloomFilter.MAX_COUNT, filter.count("value"));
+
+        // The true count of a saturated counter is unknown, so it is never decremented
+        for (int i = 0; i < 20; i++) {
+            assertTrue(filter.delete("value"));
+        }
+        assertEquals(CountingBloomFilter.MAX_COUNT, filter.count("value"));
+    }
+
+    @Test
+    public void testBytesAndStringsAreTheSameValue() {
+        byte[] framed = "[caf\u00E9]".getBytes(StandardCharsets.UTF_8);
+        assertTrue(filter.insert(framed, 1, framed.length - 2));
+        assertTrue(filter.lookup("caf\u00E9"));
+        filter.insert(ByteBuffer.wrap(framed), 1, framed.length - 2);
+        assertEquals(2, filter.count(framed, 1, framed.length - 2));
+        assertTrue(filter.delete("caf\u00E9"));
+        assertTrue(filter.delete(ByteBuffer.wrap(framed), 1, framed.length - 2));
+        assertFalse(filter.lookup(framed, 1, framed.length - 2));
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void testConstructorThrowsIAE() {
+        filter = new CountingBloomFilter(-1, 0.01);
+        fail("Exception not thrown.");
+    }
+
+    @Test (expected = NullPointerException.class)
+    public void testDeleteThrowsNPE() {
+        filter.delete(null);
+        fail("Exception not thrown.");
+    }
+
+    @Test (expected = NullPointerException.class)
+    public void testCountThrowsNPE() {
+        filter.count(null);
+        fail("Exception not thrown.");
+    }
+}
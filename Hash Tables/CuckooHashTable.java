@@ -0,0 +1,371 @@
+/*
+ * Name: Arjun Sawhney
+ */
+
+import java.util.ArrayList;
+
+/**
+ * Generic HashTable using bucketized cuckoo hashing. Every value has exactly two candidate
+ * buckets of four slots each, so a lookup inspects at most those two buckets plus a stash that
+ * is empty or tiny however full the table is. Inserts pay for this by kicking residents to their
+ * other bucket when both candidates are full. Both buckets come from one hash code, so values
+ * with equal hash codes cannot be separated by growing; beyond the eight that fit in their
+ * buckets they overflow into a HashTable stash and cost what they would in a HashTable, which
+ * is O(log n) for Comparable values under the default strategy and a linear scan otherwise.
+ *
+ * @param <T> Generic type of value
+ * @author Arjun Sawhney
+ * @since 06/05/2020
+ */
+public class CuckooHashTable<T> implements HashTableInterface<T> {
+    // constants
+    public static final int RESIZE_FACTOR = HashTable.RESIZE_FACTOR; // resize factor
+    public static final int MIN_CAPACITY = HashTable.MIN_CAPACITY; // minimum initial capacity
+    public static final double MAX_LOAD_FACTOR = 0.9; // maximum load factor
+    public static final int SLOTS_PER_BUCKET = 4; // slots sharing one bucket
+    private static final int STASH_SIZE = 4; // stashed values tolerated before growing
+    private static final double MIN_GROW_LOAD = 0.5; // growing below this cannot empty a stash
+    private static final int MAX_KICKS = 256; // displacements tried before using the stash
+    private static final int EMPTY = 0; // cached hash of an empty slot
+    private static final int OCCUPIED_BIT = Integer.MIN_VALUE; // keeps stored hashes non-zero
+    private static final int ALT_MULTIPLIER = 0x5BD1E995; // derives the second bucket index
+
+    // instance variables
+    private final HashStrategy<? super T> strategy; // hashing and equality of values
+    private Object[] slots; // data storage, SLOTS_PER_BUCKET consecutive slots per bucket
+    private int[] hashes; // cached hash of the value in each slot, EMPTY if the slot is free
+    private int nBuckets; // number of buckets, a power of two
+    private HashTable<T> stash; // values left without a slot in either bucket
+    private int nElems; // number of elements stored
+    private int random = 1; // xorshift state picking which resident to kick
+
+    /**
+     * Constructor for cuckoo hash table.
+     *
+     * @param capacity initial capacity, rounded up to a power of two
+     * @throws IllegalArgumentException if capacity is less than the minimum
+     *                                  threshold
+     */
+    public CuckooHashTable(int capacity) {
+        this(capacity, new DefaultHashStrategy<>());
+    }
+
+    /**
+     * Constructor for cuckoo hash table with a custom hashing and equality strategy.
+     *
+     * @param capacity initial capacity, rounded up to a power of two
+     * @param strategy hashing and equality of values
+     * @throws IllegalArgumentException if capacity is less than the minimum
+     *                                  threshold
+     * @throws NullPointerException     if strategy is null
+     */
+    public CuckooHashTable(int capacity, HashStrategy<? super T> strategy) {
+        if (strategy == null) {
+            // throws NullPointerException if the strategy is null
+            throw new NullPointerException();
+        } else if (capacity < MIN_CAPACITY) {
+            // throws IllegalArgumentException if capacity is less than the minimum threshold
+            throw new IllegalArgumentException();
+        }
+
+        this.strategy = strategy;
+        nBuckets = Integer.highestOneBit((capacity - 1) / SLOTS_PER_BUCKET) << 1;
+        slots = new Object[nBuckets * SLOTS_PER_BUCKET];
+        hashes = new int[slots.length];
+        stash = new HashTable<>(MIN_CAPACITY, strategy);
+    }
+
+    /**
+     * Insert the value into the hash table.
+     *
+     * @param value value to insert
+     * @return true if the value was inserted, false if the value was already
+     *         present
+     * @throws NullPointerException if the value is null
+     */
+    @Override
+    public boolean insert(T value) {
+        int hash = hashValue(value);
+        if (contains(value, hash)) {
+            // False if the value already exists in the hash table
+            return false;
+        }
+
+        if (getLoadFactor() > MAX_LOAD_FACTOR) {
+            // Before insertion, grow if the load factor is greater than the maximum
+            rehash();
+        }
+
+        place(value, hash);
+        nElems++;
+
+        if (stash.size() > STASH_SIZE && getLoadFactor() > MIN_GROW_LOAD) {
+            // Kicking keeps failing, so grow to give every value two fresh buckets. In a sparse
+            // table the stashed values must share a hash, and growing could never separate them
+            rehash();
+        }
+        return true;
+    }
+
+    /**
+     * Delete the given value from the hash table.
+     *
+     * @param value value to delete
+     * @return true if the value was deleted, false if the value was not found
+     * @throws NullPointerException if the value is null
+     */
+    @Override
+    public boolean delete(T value) {
+        int hash = hashValue(value);
+        int first = firstBucket(hash);
+        int second = secondBucket(hash);
+
+        if (clearIn(first, value, hash) || clearIn(second, value, hash)) {
+            // A freed slot may let a stashed value move back into its buckets
+            nElems--;
+            drainStash();
+            return true;
+        } else if (stash.size() > 0 && stash.delete(value)) {
+            nElems--;
+            return true;
+        }
+
+        // False if the value does not exist in the hash table
+        return false;
+    }
+
+    /**
+     * Check if the given value is present in the hash table. Inspects at most two buckets and
+     * the stash, if any value is stashed.
+     *
+     * @param value value to look up
+     * @return true if the value was found, false if the value was not found
+     * @throws NullPointerException if the value is null
+     */
+    @Override
+    public boolean lookup(T value) {
+        return contains(value, hashValue(value));
+    }
+
+    /**
+     * Get the total number of elements stored in the hash table.
+     *
+     * @return total number of elements
+     */
+    @Override
+    public int size() {
+        return nElems;
+    }
+
+    /**
+     * Get the capacity of the hash table, the number of slots over all buckets.
+     *
+     * @return capacity
+     */
+    @Override
+    public int capacity() {
+        return slots.length;
+    }
+
+    /**
+     * Get the load factor the table has reached.
+     *
+     * @return fraction of slots in use
+     */
+    public double getLoadFactor() {
+        return (double) size() / capacity();
+    }
+
+    /**
+     * Hash function calculated by the hash strategy. The top bit is always set so that a stored
+     * hash can never be mistaken for an empty slot.
+     *
+     * @param value input
+     * @return cached hash of the value
+     * @throws NullPointerException if the value is null
+     */
+    private int hashValue(T value) {
+        if (value == null) {
+            // throws NullPointerException if the value is null
+            throw new NullPointerException();
+        }
+        return strategy.hash(value) | OCCUPIED_BIT;
+    }
+
+    /**
+     * First candidate bucket of a hash.
+     *
+     * @param hash cached hash
+     * @return bucket index
+     */
+    private int firstBucket(int hash) {
+        return hash & (nBuckets - 1);
+    }
+
+    /**
+     * Second candidate bucket of a hash, taken from bits the first bucket does not use.
+     *
+     * @param hash cached hash
+     * @return bucket index
+     */
+    private int secondBucket(int hash) {
+        return ((hash * ALT_MULTIPLIER) >>> 16 ^ hash >>> 16) & (nBuckets - 1);
+    }
+
+    /**
+     * Checks if the lookup value equals a stored value.
+     *
+     * @param value  value being looked up
+     * @param stored value stored in the table
+     * @return true if the values are equal
+     */
+    @SuppressWarnings("unchecked")
+    private boolean equal(T value, Object stored) {
+        return strategy.equals(value, (T) stored);
+    }
+
+    /**
+     * Check if a value equal to the given value is stored.
+     *
+     * @param value value to find
+     * @param hash  cached hash of the value
+     * @return true if the value was found, false otherwise
+     */
+    private boolean contains(T value, int hash) {
+        int first = firstBucket(hash) * SLOTS_PER_BUCKET;
+        int second = secondBucket(hash) * SLOTS_PER_BUCKET;
+
+        for (int i = 0; i < SLOTS_PER_BUCKET; i++) {
+            if (hashes[first + i] == hash && equal(value, slots[first + i])
+                    || hashes[second + i] == hash && equal(value, slots[second + i])) {
+                return true;
+            }
+        }
+
+        // The stash is almost always empty, so it is rarely probed
+        return stash.size() > 0 && stash.lookup(value);
+    }
+
+    /**
+     * Empty the slot of the given bucket holding the value.
+     *
+     * @param bucket bucket to search
+     * @param value  value to remove
+     * @param hash   cached hash of the value
+     * @return true if the value was found and removed
+     */
+    private boolean clearIn(int bucket, T value, int hash) {
+        int start = bucket * SLOTS_PER_BUCKET;
+        for (int i = start; i < start + SLOTS_PER_BUCKET; i++) {
+            if (hashes[i] == hash && equal(value, slots[i])) {
+                slots[i] = null;
+                hashes[i] = EMPTY;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Put the value into a free slot of the given bucket.
+     *
+     * @param bucket bucket to fill
+     * @param value  value to store
+     * @param hash   cached hash of the value
+     * @return true if the bucket had a free slot
+     */
+    private boolean putIn(int bucket, Object value, int hash) {
+        int start = bucket * SLOTS_PER_BUCKET;
+        for (int i = start; i < start + SLOTS_PER_BUCKET; i++) {
+            if (hashes[i] == EMPTY) {
+                slots[i] = value;
+                hashes[i] = hash;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Place a value that is not yet stored, kicking residents to their other bucket when both
+     * candidates are full, and putting whichever value is left without a slot in the stash.
+     *
+     * @param value value to place
+     * @param hash  cached hash of the value
+     */
+    @SuppressWarnings("unchecked")
+    private void place(Object value, int hash) {
+        int bucket = firstBucket(hash);
+        if (putIn(bucket, value, hash) || putIn(secondBucket(hash), value, hash)) {
+            return;
+        }
+
+        for (int kick = 0; kick < MAX_KICKS; kick++) {
+            // Swap the homeless value with a random resident of its current bucket
+            random ^= random << 13;
+            random ^= random >>> 17;
+            random ^= random << 5;
+            int victim = bucket * SLOTS_PER_BUCKET + (random & (SLOTS_PER_BUCKET - 1));
+
+            Object tempValue = slots[victim];
+            int tempHash = hashes[victim];
+            slots[victim] = value;
+            hashes[victim] = hash;
+            value = tempValue;
+            hash = tempHash;
+
+            // The evicted resident moves to whichever of its buckets it was not in
+            int first = firstBucket(hash);
+            bucket = first == bucket ? secondBucket(hash) : first;
+            if (putIn(bucket, value, hash)) {
+                return;
+            }
+        }
+
+        stash.insert((T) value);
+    }
+
+    /**
+     * Move stashed values back into their buckets where there is room. Only a tiny stash is
+     * drained, a large one holds values sharing a hash code whose buckets stay full, and
+     * scanning it on every delete would cost O(n).
+     */
+    private void drainStash() {
+        if (stash.size() == 0 || stash.size() > STASH_SIZE) {
+            return;
+        }
+
+        ArrayList<T> moved = new ArrayList<>(STASH_SIZE);
+        for (T value : stash) {
+            int hash = hashValue(value);
+            if (putIn(firstBucket(hash), value, hash) || putIn(secondBucket(hash), value, hash)) {
+                moved.add(value);
+            }
+        }
+        stash.deleteAll(moved);
+    }
+
+    /**
+     * Double the number of buckets and re-place all values, including stashed ones.
+     */
+    private void rehash() {
+        Object[] oldSlots = slots;
+        int[] oldHashes = hashes;
+        HashTable<T> oldStash = stash;
+
+        nBuckets *= RESIZE_FACTOR;
+        slots = new Object[nBuckets * SLOTS_PER_BUCKET];
+        hashes = new int[slots.length];
+        stash = new HashTable<>(MIN_CAPACITY, strategy);
+
+        // Re-place with cached hashes, values are known to be unique
+        for (int i = 0; i < oldSlots.length; i++) {
+            if (oldHashes[i] != EMPTY) {
+                place(oldSlots[i], oldHashes[i]);
+            }
+        }
+        for (T value : oldStash) {
+            place(value, hashValue(value));
+        }
+    }
+}
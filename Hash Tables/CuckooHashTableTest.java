@@ -0,0 +1,137 @@
+/*
+ * Name: Arjun Sawhney
+ */
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * CuckooHashTable Tester Class
+ *
+ * @author Arjun Sawhney
+ * @since 06/05/2020
+ */
+public class CuckooHashTableTest {
+    CuckooHashTable<Integer> hashTable = new CuckooHashTable<>(12);
+
+    @Test
+    public void testConstructor() {
+        assertEquals(0, hashTable.size());
+        assertEquals(16, hashTable.capacity());
+        assertEquals(0.0, hashTable.getLoadFactor(), 0.0);
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void testConstructorThrowsIAE() {
+        hashTable = new CuckooHashTable<>(8);
+        fail("Exception not thrown.");
+    }
+
+    @Test
+    public void testInsert() {
+        for (int i = 0; i < 10000; i++) {
+            assertFalse(hashTable.lookup(i));
+            assertTrue(hashTable.insert(i));
+            assertTrue(hashTable.lookup(i));
+            assertFalse(hashTable.insert(i));
+            assertEquals(i + 1, hashTable.size());
+        }
+        for (int i = 0; i < 10000; i++) {
+            assertTrue(hashTable.lookup(i));
+        }
+        assertTrue(hashTable.getLoadFactor() > 0.3);
+        assertTrue(hashTable.getLoadFactor() <= CuckooHashTable.MAX_LOAD_FACTOR);
+    }
+
+    @Test
+    public void testDelete() {
+        testInsert();
+
+        for (int i = 0; i < 10000; i += 2) {
+            assertTrue(hashTable.delete(i));
+            assertFalse(hashTable.delete(i));
+        }
+        for (int i = 0; i < 10000; i++) {
+            assertEquals(i % 2 == 1, hashTable.lookup(i));
+        }
+        assertEquals(5000, hashTable.size());
+    }
+
+    @Test
+    public void testCollidingValues() {
+        // Values with equal hash codes share both buckets, so the table must grow or stash them
+        HashTableInterface<String> strings = new CuckooHashTable<>(10);
+        String[] colliding = {"Aa", "BB", "AaAa", "AaBB", "BBAa", "BBBB", "AaAaAa", "AaAaBB"};
+        for (String value : colliding) {
+            assertTrue(strings.insert(value));
+        }
+        for (String value : colliding) {
+            assertTrue(strings.lookup(value));
+            assertTrue(strings.delete(value));
+            assertFalse(strings.lookup(value));
+        }
+    }
+
+    @Test
+    public void testIdenticalHashes() {
+        // More values than two buckets and the stash can hold, all with one hash code
+        HashTableInterface<Integer> same = new CuckooHashTable<>(10, new HashStrategy<Integer>() {
+            @Override
+            public int hash(Integer value) {
+                return 0;
+            }
+
+            @Override
+            public boolean equals(Integer a, Integer b) {
+                return a.equals(b);
+            }
+        });
+        for (int i = 0; i < 50; i++) {
+            assertTrue(same.insert(i));
+        }
+        for (int i = 0; i < 50; i++) {
+            assertTrue(same.delete(i));
+        }
+        assertEquals(0, same.size());
+    }
+
+    @Test (timeout = 5000)
+    public void testCollidingFlood() {
+        // Every string of 15 "Aa" or "BB" pairs has the same hash code, a linear stash
+        // would make this take many seconds
+        HashTableInterface<String> strings = new CuckooHashTable<>(10);
+        String[] colliding = new String[1 << 15];
+        for (int i = 0; i < colliding.length; i++) {
+            StringBuilder builder = new StringBuilder();
+            for (int bit = 0; bit < 15; bit++) {
+                builder.append((i >>> bit & 1) == 0 ? "Aa" : "BB");
+            }
+            colliding[i] = builder.toString();
+        }
+
+        for (String value : colliding) {
+            assertTrue(strings.insert(value));
+        }
+        assertEquals(colliding.length, strings.size());
+        for (String value : colliding) {
+            assertTrue(strings.lookup(value));
+        }
+        for (String value : colliding) {
+            assertTrue(strings.delete(value));
+        }
+        assertEquals(0, strings.size());
+    }
+
+    @Test (expected = NullPointerException.class)
+    public void testInsertThrowsNPE() {
+        hashTable.insert(null);
+        fail("Exception not thrown.");
+    }
+
+    @Test (expected = NullPointerException.class)
+    public void testLookUpThrowsNPE() {
+        hashTable.lookup(null);
+        fail("Exception not thrown.");
+    }
+}
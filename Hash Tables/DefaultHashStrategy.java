@@ -0,0 +1,79 @@
+/*
+ * Name: Arjun Sawhney
+ */
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * HashStrategy that uses the values' own equals and runs their hashCode through a seeded bit
+ * mixer. Weak hash codes that only differ in their high bits still land in different slots, and
+ * because the seed is random per instance an attacker cannot choose inputs that collide.
+ *
+ * @param <T> Generic type of value
+ * @author Arjun Sawhney
+ * @since 06/05/2020
+ */
+public class DefaultHashStrategy<T> implements HashStrategy<T> {
+    // constants
+    private static final int MIX_ONE = 0x85EBCA6B; // first murmur3 finalizer multiplier
+    private static final int MIX_TWO = 0xC2B2AE35; // second murmur3 finalizer multiplier
+
+    // instance variables
+    private final int seed; // per-instance seed mixed into every hash
+
+    /**
+     * Initializes a strategy with a random seed.
+     */
+    public DefaultHashStrategy() {
+        this(ThreadLocalRandom.current().nextInt());
+    }
+
+    /**
+     * Initializes a strategy with the given seed, for reproducible layouts.
+     *
+     * @param seed seed mixed into every hash
+     */
+    public DefaultHashStrategy(int seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Returns the mixed hash code of the value.
+     *
+     * @param value value to hash
+     * @return hash of the value
+     */
+    @Override
+    public int hash(T value) {
+        return mix(value.hashCode());
+    }
+
+    /**
+     * Checks if two values are equal using equals.
+     *
+     * @param a value being looked up
+     * @param b value stored in the table
+     * @return true if the values are equal, false otherwise
+     */
+    @Override
+    public boolean equals(T a, T b) {
+        return a.equals(b);
+    }
+
+    /**
+     * Mix a raw hash code with the seed using the murmur3 32-bit finalizer, so every input bit
+     * affects every output bit.
+     *
+     * @param hashCode raw hash code
+     * @return mixed hash
+     */
+    public int mix(int hashCode) {
+        int hash = hashCode ^ seed;
+        hash ^= hash >>> 16;
+        hash *= MIX_ONE;
+        hash ^= hash >>> 13;
+        hash *= MIX_TWO;
+        hash ^= hash >>> 16;
+        return hash;
+    }
+}
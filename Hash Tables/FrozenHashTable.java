@@ -0,0 +1,232 @@
+/*
+ * Name: Arjun Sawhney
+ */
+
+import java.util.Arrays;
+
+/**
+ * Immutable hash table built by HashTable.freeze for data that is loaded once and then only
+ * queried. Values are kept in a dense array indexed by a BBHash style minimal perfect hash, so
+ * a lookup compares against exactly one stored value. The index is a cascade of bit arrays,
+ * one level per round of construction, and costs about 3 bits per value.
+ *
+ * Values whose hashes are equal can never be told apart by the perfect hash. They collide on
+ * every level and are kept in a small fallback HashTable instead.
+ *
+ * @param <T> Generic type of value
+ * @author Arjun Sawhney
+ * @since 06/05/2020
+ */
+public final class FrozenHashTable<T> {
+    // constants
+    public static final int MAX_LEVELS = 64; // levels before remaining values use the fallback
+    private static final double GAMMA = 1.0; // bits per remaining value on each level
+    private static final int OCCUPIED_BIT = Integer.MIN_VALUE; // matches HashTable's hashes
+    private static final int RANK_WORDS = 8; // words of bits covered by one rank sample
+    private static final long LEVEL_SEED = 0x9E3779B97F4A7C15L; // separates level hashes
+
+    // instance variables
+    private final HashStrategy<? super T> strategy; // hashing and equality of values
+    private final Object[] elements; // values, at the index given by the perfect hash
+    private final long[] bits; // one bit per position of every level, set if a value owns it
+    private final int[] ranks; // set bits before every RANK_WORDS words of bits
+    private final int[] levelOffsets; // first bit of every level, plus the end of the last
+    private final HashTable<T> fallback; // values that never got a position of their own, or null
+
+    /**
+     * Constructor for a frozen hash table over the given values. Only HashTable.freeze builds
+     * one, passing its values and their cached hashes.
+     *
+     * @param strategy    hashing and equality of values
+     * @param values      distinct values
+     * @param valueHashes hash of values[i] at index i, as cached by HashTable
+     * @param count       number of values in the arrays
+     */
+    FrozenHashTable(HashStrategy<? super T> strategy, Object[] values, int[] valueHashes,
+            int count) {
+        this.strategy = strategy;
+
+        // Every level keeps the positions hit by exactly one remaining hash. Hashes that
+        // collide are retried on the next, smaller level
+        int[] remaining = Arrays.copyOf(valueHashes, count);
+        int remainingCount = count;
+        long[][] levelBits = new long[MAX_LEVELS][];
+        int[] offsets = new int[MAX_LEVELS + 1];
+        int levels = 0;
+        while (remainingCount > 0 && levels < MAX_LEVELS) {
+            int size = levelSize(remainingCount);
+            long[] seen = new long[size / Long.SIZE];
+            long[] collided = new long[seen.length];
+            for (int i = 0; i < remainingCount; i++) {
+                int position = position(remaining[i], levels, size);
+                long bit = 1L << position;
+                if ((seen[position >>> 6] & bit) != 0) {
+                    collided[position >>> 6] |= bit;
+                }
+                seen[position >>> 6] |= bit;
+            }
+            for (int w = 0; w < seen.length; w++) {
+                seen[w] &= ~collided[w];
+            }
+
+            // Only hashes that lost their position move on to the next level
+            int next = 0;
+            for (int i = 0; i < remainingCount; i++) {
+                int position = position(remaining[i], levels, size);
+                if ((collided[position >>> 6] & (1L << position)) != 0) {
+                    remaining[next++] = remaining[i];
+                }
+            }
+            remainingCount = next;
+            levelBits[levels] = seen;
+            offsets[levels + 1] = offsets[levels] + size;
+            levels++;
+        }
+
+        // Concatenate the levels so one rank over all of them numbers every owned position
+        levelOffsets = Arrays.copyOf(offsets, levels + 1);
+        bits = new long[levelOffsets[levels] / Long.SIZE];
+        for (int level = 0; level < levels; level++) {
+            System.arraycopy(levelBits[level], 0, bits, levelOffsets[level] / Long.SIZE,
+                    levelBits[level].length);
+        }
+        ranks = new int[bits.length / RANK_WORDS + 1];
+        int setBits = 0;
+        for (int w = 0; w < bits.length; w++) {
+            if (w % RANK_WORDS == 0) {
+                ranks[w / RANK_WORDS] = setBits;
+            }
+            setBits += Long.bitCount(bits[w]);
+        }
+
+        // Put every value at its rank, or in the fallback if its hash never got a position
+        elements = new Object[setBits];
+        HashTable<T> unplaced = null;
+        for (int i = 0; i < count; i++) {
+            int index = indexOf(valueHashes[i]);
+            if (index >= 0) {
+                elements[index] = values[i];
+            } else {
+                if (unplaced == null) {
+                    unplaced = new HashTable<>(HashTable.MIN_CAPACITY, strategy);
+                }
+                unplaced.insert(cast(values[i]));
+            }
+        }
+        fallback = unplaced;
+    }
+
+    /**
+     * Check if the given value is present. At most one stored value is compared with it.
+     *
+     * @param value value to look up
+     * @return true if the value was found, false if the value was not found
+     * @throws NullPointerException if the value is null
+     */
+    public boolean lookup(T value) {
+        if (value == null) {
+            // throws NullPointerException if the value is null
+            throw new NullPointerException();
+        }
+
+        int hash = strategy.hash(value) | OCCUPIED_BIT;
+        int index = indexOf(hash);
+        if (index >= 0) {
+            // A value that is not stored may still be sent to some index, equality rejects it
+            return strategy.equals(value, cast(elements[index]));
+        }
+        return fallback != null && fallback.lookup(value);
+    }
+
+    /**
+     * Get the total number of values stored.
+     *
+     * @return total number of values
+     */
+    public int size() {
+        return elements.length + (fallback == null ? 0 : fallback.size());
+    }
+
+    /**
+     * Get the number of index bits per stored value, counting the level bit arrays and their
+     * rank samples but not the element array itself.
+     *
+     * @return index overhead in bits per value
+     */
+    public double bitsPerValue() {
+        long indexBits = (long) bits.length * Long.SIZE + (long) ranks.length * Integer.SIZE;
+        return size() == 0 ? 0 : (double) indexBits / size();
+    }
+
+    /**
+     * Number of bits of a level for the given number of remaining hashes, a multiple of 64.
+     *
+     * @param remaining number of hashes still without a position
+     * @return level size in bits
+     */
+    private static int levelSize(int remaining) {
+        long size = (long) Math.ceil(GAMMA * remaining);
+        return (int) Math.max(Long.SIZE, (size + Long.SIZE - 1) / Long.SIZE * Long.SIZE);
+    }
+
+    /**
+     * Position of a hash on one level. Each level mixes the hash with its own seed, so hashes
+     * that collide on one level are spread independently on the next.
+     *
+     * @param hash  cached hash
+     * @param level level number
+     * @param size  number of positions on the level
+     * @return position in [0, size)
+     */
+    private static int position(int hash, int level, int size) {
+        // murmur3 fmix64 finalizer, then a multiply-shift to map onto the level
+        long x = (hash & 0xFFFFFFFFL) + (level + 1) * LEVEL_SEED;
+        x = (x ^ (x >>> 33)) * 0xFF51AFD7ED558CCDL;
+        x = (x ^ (x >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        x ^= x >>> 33;
+        return (int) (((x >>> 32) * size) >>> 32);
+    }
+
+    /**
+     * Index of the element owning a hash, found on the first level where its bit is set.
+     *
+     * @param hash cached hash
+     * @return index into elements, or -1 if no level has a position for the hash
+     */
+    private int indexOf(int hash) {
+        for (int level = 0; level + 1 < levelOffsets.length; level++) {
+            int size = levelOffsets[level + 1] - levelOffsets[level];
+            int bit = levelOffsets[level] + position(hash, level, size);
+            if ((bits[bit >>> 6] & (1L << bit)) != 0) {
+                return rank(bit);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Number of set bits before the given bit.
+     *
+     * @param bit bit index into bits
+     * @return rank of the bit
+     */
+    private int rank(int bit) {
+        int word = bit >>> 6;
+        int rank = ranks[word / RANK_WORDS];
+        for (int w = word - word % RANK_WORDS; w < word; w++) {
+            rank += Long.bitCount(bits[w]);
+        }
+        return rank + Long.bitCount(bits[word] & ((1L << bit) - 1));
+    }
+
+    /**
+     * Unchecked cast of a stored element back to the value type.
+     *
+     * @param element stored element
+     * @return the element as a value
+     */
+    @SuppressWarnings("unchecked")
+    private T cast(Object element) {
+        return (T) element;
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Name: Arjun Sawhney
+ */
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * FrozenHashTable Tester Class
+ *
+ * @author Arjun Sawhney
+ * @since 06/05/2020
+ */
+public class FrozenHashTableTest {
+    HashTable<Integer> hashTable = new HashTable<>(12);
+
+    @Test
+    public void testEmpty() {
+        FrozenHashTable<Integer> frozen = hashTable.freeze();
+        assertEquals(0, frozen.size());
+        assertFalse(frozen.lookup(1));
+    }
+
+    @Test
+    public void testLookup() {
+        for (int i = 0; i < 10000; i++) {
+            hashTable.insert(i * 3);
+        }
+        FrozenHashTable<Integer> frozen = hashTable.freeze();
+        assertEquals(10000, frozen.size());
+        for (int i = 0; i < 30000; i++) {
+            assertEquals(i % 3 == 0, frozen.lookup(i));
+        }
+
+        // Later changes to the hash table do not reach the frozen copy
+        hashTable.delete(0);
+        hashTable.insert(1);
+        assertTrue(frozen.lookup(0));
+        assertFalse(frozen.lookup(1));
+    }
+
+    @Test
+    public void testBitsPerValue() {
+        for (int i = 0; i < 100000; i++) {
+            hashTable.insert(i);
+        }
+        FrozenHashTable<Integer> frozen = hashTable.freeze();
+        assertTrue(frozen.bitsPerValue() < 4);
+    }
+
+    @Test
+    public void testSameHashValues() {
+        // Values with equal hashes cannot get positions of their own and use the fallback
+        HashTable<String> strings = new HashTable<>(10);
+        String[] colliding = {"Aa", "BB", "AaAa", "BBBB", "AaBB", "BBAa"};
+        for (String value : colliding) {
+            strings.insert(value);
+        }
+        for (int i = 0; i < 100; i++) {
+            strings.insert("value" + i);
+        }
+        FrozenHashTable<String> frozen = strings.freeze();
+        assertEquals(106, frozen.size());
+        for (String value : colliding) {
+            assertTrue(frozen.lookup(value));
+        }
+        for (int i = 0; i < 100; i++) {
+            assertTrue(frozen.lookup("value" + i));
+            assertFalse(frozen.lookup("other" + i));
+        }
+    }
+
+    @Test (expected = NullPointerException.class)
+    public void testLookUpThrowsNPE() {
+        hashTable.freeze().lookup(null);
+        fail("Exception not thrown.");
+    }
+}
@@ -0,0 +1,30 @@
+/*
+ * Name: Arjun Sawhney
+ */
+
+/**
+ * Hashing and equality used by a HashTable in place of the values' own hashCode and equals.
+ * Implementations must return the same hash for any two values they consider equal.
+ *
+ * @param <T> Generic type of value
+ */
+public interface HashStrategy<T> {
+
+    /**
+     * Returns the hash of the value. The table uses the low bits as the slot index, so every
+     * input bit should affect them.
+     *
+     * @param value value to hash, never null
+     * @return hash of the value
+     */
+    int hash(T value);
+
+    /**
+     * Checks if two values are equal.
+     *
+     * @param a value being looked up, never null
+     * @param b value stored in the table, never null
+     * @return true if the values are equal, false otherwise
+     */
+    boolean equals(T a, T b);
+}
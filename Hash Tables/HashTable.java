@@ -3,38 +3,119 @@
  */
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
- * Generic HashTable that applies chaining to resolve collisions
+ * Generic HashTable that applies open addressing with Robin Hood linear probing to resolve
+ * collisions. Values live in a flat array next to a parallel array of cached hash codes, and
+ * deletions use backward-shift so no tombstones are ever left behind. The capacity is always a
+ * power of two so a slot is picked with a mask, and hashing and equality come from a
+ * HashStrategy that by default mixes hashCode with a per-instance random seed. When more than
+ * TREEIFY_THRESHOLD values share one hash, they are collapsed into a single slot holding a
+ * sorted TreeBin so a flood of identical hash codes costs O(log n) instead of O(n) per probe.
  *
  * @param <T> Generic type of value
  * @author Arjun Sawhney
  * @since 06/05/2020
  */
-public class HashTable<T> {
+public class HashTable<T> implements HashTableInterface<T>, Iterable<T> {
     // constants
     public static final int RESIZE_FACTOR = 2; // resize factor
     public static final int MIN_CAPACITY = 10; // minimum initial capacity
     public static final double MAX_LOAD_FACTOR = (double) 2 / 3; // maximum load factor
+    public static final double MIN_LOAD_FACTOR = (double) 1 / 6; // default shrinking threshold
+    private static final int EMPTY = 0; // cached hash of an empty slot
+    private static final int OCCUPIED_BIT = Integer.MIN_VALUE; // keeps stored hashes non-zero
+    private static final int MIGRATION_STEP = 16; // old slots migrated per incremental step
+    private static final int TREEIFY_THRESHOLD = 8; // same-hash values allowed outside a TreeBin
+    private static final int UNTREEIFY_THRESHOLD = 6; // TreeBin size that is spread out again
+    private static final int SPLIT_SLOTS = 1 << 14; // fewest slots one set operation task scans
+    private static final HashTableStats.Recorder NO_STATS = new HashTableStats.Recorder(); // no-op
 
     // instance variables
-    private LinkedList<T>[] table; // data storage
+    private final HashStrategy<? super T> strategy; // hashing and equality of values
+    private Object[] table; // data storage
+    private int[] hashes; // cached hash of the value in each slot, EMPTY if the slot is free
     private int nElems; // number of elements stored
+    private final int initialCapacity; // capacity the table never shrinks below on its own
+    private double minLoadFactor = MIN_LOAD_FACTOR; // load factor below which deletes shrink
+    private final boolean incremental; // whether rehashing is spread across operations
+    private Object[] oldTable; // storage being migrated by an incremental rehash, or null
+    private int[] oldHashes; // cached hashes of oldTable
+    private int migrateIndex; // next slot of oldTable to migrate
+    private int migrateLeft; // number of oldTable slots still to migrate
+    private int modCount; // number of changes to the slots, checked by iterators
+    private HashTableStats.Recorder stats = NO_STATS; // probe and rehash hooks
 
     /**
-     * Constructor for hash table.
+     * Constructor for hash table. The capacity is rounded up to a power of two.
      *
      * @throws IllegalArgumentException if capacity is less than the minimum
      *                                  threshold
      */
-    @SuppressWarnings("unchecked")
     public HashTable(int capacity) {
+        this(capacity, false);
+    }
+
+    /**
+     * Constructor for hash table with a custom hashing and equality strategy.
+     *
+     * @param capacity initial capacity, rounded up to a power of two
+     * @param strategy hashing and equality of values
+     * @throws IllegalArgumentException if capacity is less than the minimum
+     *                                  threshold
+     * @throws NullPointerException     if strategy is null
+     */
+    public HashTable(int capacity, HashStrategy<? super T> strategy) {
+        this(capacity, false, strategy);
+    }
+
+    /**
+     * Constructor for hash table with a choice of rehashing mode. In incremental mode a rehash
+     * keeps the old and new arrays side by side and every following insert or delete migrates
+     * a bounded number of old slots, so no single operation pays for copying the whole table.
+     *
+     * @param capacity    initial capacity, rounded up to a power of two
+     * @param incremental true to rehash incrementally, false to rehash all at once
+     * @throws IllegalArgumentException if capacity is less than the minimum
+     *                                  threshold
+     */
+    public HashTable(int capacity, boolean incremental) {
+        this(capacity, incremental, new DefaultHashStrategy<>());
+    }
+
+    /**
+     * Constructor for hash table with a choice of rehashing mode and a custom hashing and
+     * equality strategy.
+     *
+     * @param capacity    initial capacity, rounded up to a power of two
+     * @param incremental true to rehash incrementally, false to rehash all at once
+     * @param strategy    hashing and equality of values
+     * @throws IllegalArgumentException if capacity is less than the minimum
+     *                                  threshold
+     * @throws NullPointerException     if strategy is null
+     */
+    public HashTable(int capacity, boolean incremental, HashStrategy<? super T> strategy) {
+        if (strategy == null) {
+            // throws NullPointerException if the strategy is null
+            throw new NullPointerException();
+        }
+        this.incremental = incremental;
+        this.strategy = strategy;
         if (capacity < MIN_CAPACITY) {
             // throws IllegalArgumentException if capacity is less than the minimum threshold
             throw new IllegalArgumentException();
         } else {
-            // initializes a hash table as an array of LinkedLists with specified capacity.
-            table = new LinkedList[capacity];
+            // initializes a hash table as a flat array of slots, with the specified capacity
+            // rounded up to a power of two
+            table = new Object[Integer.highestOneBit(capacity - 1) << 1];
+            hashes = new int[table.length];
+            initialCapacity = table.length;
             // hash table is initially empty
             nElems = 0;
         }
@@ -48,31 +129,77 @@ public class HashTable<T> {
      *         present
      * @throws NullPointerException if the value is null
      */
+    @Override
     public boolean insert(T value) {
+        // insertIfAbsent throws NullPointerException if the value is null
+        return insertIfAbsent(value) == null;
+    }
+
+    /**
+     * Insert the value into the hash table unless an equal value is already stored.
+     *
+     * @param value value to insert
+     * @return the value already stored that equals the given value, or null if the value was
+     *         inserted
+     * @throws NullPointerException if the value is null
+     */
+    @SuppressWarnings("unchecked")
+    public T insertIfAbsent(T value) {
         if (value == null) {
             // throws NullPointerException if the value is null
             throw new NullPointerException();
-        } else if (lookup(value)) {
-            // False if the value already exists in the hash table
-            return false;
-        } else {
-            if (getLoadFactor() > MAX_LOAD_FACTOR) {
-                // Before insertion, this method checks if the load factor is greater than ⅔,
-                // and invokes rehash() if the condition satisfies
-                rehash();
-            }
+        }
 
-            // Increment number of elements in the hash table
-            nElems++;
+        // Move part of an in-progress incremental rehash along
+        migrateStep();
 
-            // Initialize LinkedList at calculated index only if it is null
-            if (table[hashValue(value)] == null) {
-                table[hashValue(value)] = new LinkedList<>();
+        // Hash once and probe once, the probe either finds the value or stops where it belongs
+        return insertHashed(value, hashValue(value));
+    }
+
+    /**
+     * Insert a non-null value whose hash has already been calculated.
+     *
+     * @param value value to insert
+     * @param hash  hash of the value
+     * @return the value already stored that equals the given value, or null if the value was
+     *         inserted
+     */
+    private T insertHashed(T value, int hash) {
+        int index = findSlot(table, hashes, value, hash);
+        if (index >= 0) {
+            // Return the stored value if an equal one already exists in the hash table
+            return storedValue(table[index], value);
+        } else if (oldTable != null) {
+            // Values not yet migrated are still in the old table
+            int oldIndex = findSlot(oldTable, oldHashes, value, hash);
+            if (oldIndex >= 0) {
+                return storedValue(oldTable[oldIndex], value);
             }
+        }
+
+        int dist = 0;
+        if (getLoadFactor() > MAX_LOAD_FACTOR) {
+            // Before insertion, rehash if the load factor is greater than ⅔ and place the value
+            // from its home slot in the larger table
+            rehash();
+            place(value, hash, homeIndex(hash, capacity()), 0);
+        } else {
+            // Otherwise continue from the slot where the probe stopped
+            index = -index - 1;
+            dist = probeDistance(hash, index, capacity());
+            place(value, hash, index, dist);
+        }
 
-            // Add value to the LinkedList at calculated index
-            return table[hashValue(value)].add(value);
+        // Increment number of elements in the hash table
+        nElems++;
+        modCount++;
+
+        // A run of same-hash values can only be too long if the probe was at least that long
+        if (dist >= TREEIFY_THRESHOLD) {
+            treeifyIfNeeded(hash);
         }
+        return null;
     }
 
     /**
@@ -82,19 +209,65 @@ public class HashTable<T> {
      * @return true if the value was deleted, false if the value was not found
      * @throws NullPointerException if the value is null
      */
+    @Override
     public boolean delete(T value) {
+        // removeAndGet throws NullPointerException if the value is null
+        return removeAndGet(value) != null;
+    }
+
+    /**
+     * Remove the stored value equal to the given value from the hash table.
+     *
+     * @param value value to remove
+     * @return the removed value, or null if no equal value was found
+     * @throws NullPointerException if the value is null
+     */
+    public T removeAndGet(T value) {
         if (value == null) {
             // throws NullPointerException if the value is null
             throw new NullPointerException();
-        } else if (lookup(value)) {
-            // If the value is in the hash table, decrement number of elements and remove the
-            // value from the LinkedList at the calculated index
+        }
+
+        // Move part of an in-progress incremental rehash along
+        migrateStep();
+        return removeHashed(value, hashValue(value));
+    }
+
+    /**
+     * Remove a non-null value whose hash has already been calculated.
+     *
+     * @param value value to remove
+     * @param hash  hash of the value
+     * @return the removed value, or null if no equal value was found
+     */
+    private T removeHashed(T value, int hash) {
+        T removed = null;
+        int index = findSlot(table, hashes, value, hash);
+        if (index >= 0) {
+            // Decrement number of elements and remove the value from its slot, shifting the rest
+            // of the cluster back
             nElems--;
-            return table[hashValue(value)].remove(value);
-        } else {
-            // False if the value does not exist in the hash table
-            return false;
+            modCount++;
+            removed = removeValueAt(table, hashes, index, value);
+        } else if (oldTable != null) {
+            // Values not yet migrated are removed from the old table instead
+            index = findSlot(oldTable, oldHashes, value, hash);
+            if (index >= 0) {
+                nElems--;
+                modCount++;
+                removed = removeValueAt(oldTable, oldHashes, index, value);
+            }
+        }
+
+        if (removed != null && getLoadFactor() < minLoadFactor && capacity() > initialCapacity) {
+            // After deletion, halve the table if the load factor fell below the minimum. Half
+            // the size doubles the load factor, which stays below ⅔ so the next insert does not
+            // grow the table straight back
+            resize(capacity() / RESIZE_FACTOR, incremental);
         }
+
+        // Null if the value does not exist in the hash table
+        return removed;
     }
 
     /**
@@ -104,17 +277,458 @@ public class HashTable<T> {
      * @return true if the value was found, false if the value was not found
      * @throws NullPointerException if the value is null
      */
+    @Override
     public boolean lookup(T value) {
         if (value == null) {
             // throws NullPointerException if the value is null
             throw new NullPointerException();
-        } else if (table[hashValue(value)] != null) {
-            // If the LinkedList is not null, check if it contains the specified value
-            return table[hashValue(value)].contains(value);
         } else {
-            // False if the LinkedList is null as no values exist at that index
-            return false;
+            return lookupHashed(value, hashValue(value));
+        }
+    }
+
+    /**
+     * Check if a non-null value whose hash has already been calculated is present.
+     *
+     * @param value value to look up
+     * @param hash  hash of the value
+     * @return true if the value was found, false if the value was not found
+     */
+    private boolean lookupHashed(T value, int hash) {
+        // The value is present if probing finds a slot holding it in either table
+        return findSlot(table, hashes, value, hash) >= 0
+                || (oldTable != null && findSlot(oldTable, oldHashes, value, hash) >= 0);
+    }
+
+    /**
+     * Find a stored value by its hash and a predicate instead of an equal value, so callers
+     * whose values are built from several fields can probe without allocating one. The hash
+     * must be the one the table's HashStrategy returns for the value being looked for.
+     *
+     * @param hash    hash of the wanted value, as returned by the strategy
+     * @param matches accepts the wanted value and no other value with the same hash
+     * @return the stored value accepted by matches, or null if there is none
+     * @throws NullPointerException if matches is null
+     */
+    public T find(int hash, Predicate<? super T> matches) {
+        if (matches == null) {
+            // throws NullPointerException if the predicate is null
+            throw new NullPointerException();
+        }
+
+        // Cached hashes always carry the occupied bit, the strategy's hash does not
+        hash |= OCCUPIED_BIT;
+        T stored = findMatch(table, hashes, hash, matches);
+        if (stored == null && oldTable != null) {
+            stored = findMatch(oldTable, oldHashes, hash, matches);
+        }
+        return stored;
+    }
+
+    /**
+     * Remove a stored value found by its hash and a predicate, the allocation free counterpart
+     * of removeAndGet.
+     *
+     * @param hash    hash of the value to remove, as returned by the strategy
+     * @param matches accepts the value to remove and no other value with the same hash
+     * @return the removed value, or null if no value was accepted by matches
+     * @throws NullPointerException if matches is null
+     */
+    public T remove(int hash, Predicate<? super T> matches) {
+        // find throws NullPointerException if the predicate is null
+        T stored = find(hash, matches);
+        if (stored == null) {
+            return null;
+        }
+
+        // The stored value is equal to itself, so it can be removed like any other value
+        migrateStep();
+        return removeHashed(stored, hash | OCCUPIED_BIT);
+    }
+
+    /**
+     * Build an immutable copy of the current values indexed by a minimal perfect hash. The
+     * copy answers lookups with a single comparison and is unaffected by later changes to
+     * this table.
+     *
+     * @return frozen copy of the hash table
+     */
+    @SuppressWarnings("unchecked")
+    public FrozenHashTable<T> freeze() {
+        Object[] values = new Object[nElems];
+        int[] valueHashes = new int[nElems];
+        int count = 0;
+
+        // Every value is passed with its cached hash, the values of a TreeBin all share one
+        for (Object[] slots : new Object[][] {oldTable, table}) {
+            if (slots == null) {
+                continue;
+            }
+            int[] slotHashes = slots == table ? hashes : oldHashes;
+            for (int i = 0; i < slots.length; i++) {
+                if (slots[i] instanceof HashTable.TreeBin) {
+                    for (T resident : ((TreeBin) slots[i]).values()) {
+                        values[count] = resident;
+                        valueHashes[count++] = slotHashes[i];
+                    }
+                } else if (slotHashes[i] != EMPTY) {
+                    values[count] = slots[i];
+                    valueHashes[count++] = slotHashes[i];
+                }
+            }
+        }
+        return new FrozenHashTable<>(strategy, values, valueHashes, count);
+    }
+
+    /**
+     * Start counting probes and timing rehashes for stats. Counters restart from zero if stats
+     * were already enabled.
+     */
+    public void enableStats() {
+        stats = new HashTableStats.CountingRecorder();
+    }
+
+    /**
+     * Stop counting probes and timing rehashes. Later snapshots report zero counters.
+     */
+    public void disableStats() {
+        stats = NO_STATS;
+    }
+
+    /**
+     * Take a snapshot of the table's layout and of the counters recorded since stats were
+     * enabled. The layout is measured by scanning every slot, so this costs O(capacity).
+     *
+     * @return stats snapshot
+     */
+    @SuppressWarnings("unchecked")
+    public HashTableStats stats() {
+        int occupied = 0;
+        int bins = 0;
+        long[] probeLengths = new long[1];
+
+        // Values waiting in the old table of an incremental rehash are probed there
+        for (Object[] slots : new Object[][] {oldTable, table}) {
+            if (slots == null) {
+                continue;
+            }
+            int[] slotHashes = slots == table ? hashes : oldHashes;
+            for (int i = 0; i < slots.length; i++) {
+                if (slotHashes[i] == EMPTY) {
+                    continue;
+                }
+                occupied++;
+                int probes = probeDistance(slotHashes[i], i, slots.length) + 1;
+                if (probes >= probeLengths.length) {
+                    probeLengths = Arrays.copyOf(probeLengths, probes + 1);
+                }
+                if (slots[i] instanceof HashTable.TreeBin) {
+                    bins++;
+                    probeLengths[probes] += ((TreeBin) slots[i]).size();
+                } else {
+                    probeLengths[probes]++;
+                }
+            }
+        }
+
+        // Index 0 was only a placeholder, entry i of the snapshot is for i + 1 probes
+        return new HashTableStats(nElems, capacity(), occupied, bins,
+                Arrays.copyOfRange(probeLengths, 1, probeLengths.length), stats);
+    }
+
+    /**
+     * Set the load factor below which a delete halves the table. The table never shrinks
+     * below its initial capacity on its own. A minimum of 0 turns shrinking off.
+     *
+     * @param minLoadFactor new minimum load factor
+     * @throws IllegalArgumentException if minLoadFactor is negative or not less than half of
+     *                                  MAX_LOAD_FACTOR
+     */
+    public void setMinLoadFactor(double minLoadFactor) {
+        if (!(minLoadFactor >= 0 && minLoadFactor < MAX_LOAD_FACTOR / RESIZE_FACTOR)) {
+            // throws IllegalArgumentException if a shrink could be followed by an immediate grow
+            throw new IllegalArgumentException();
+        }
+        this.minLoadFactor = minLoadFactor;
+    }
+
+    /**
+     * Shrink the table to the smallest capacity that holds its values without exceeding the
+     * maximum load factor, and release the arrays of any unfinished incremental rehash. May
+     * go below the initial capacity, down to MIN_CAPACITY rounded up to a power of two.
+     */
+    public void trimToSize() {
+        int length = Integer.highestOneBit(MIN_CAPACITY - 1) << 1;
+        while ((double) nElems / length > MAX_LOAD_FACTOR) {
+            length *= RESIZE_FACTOR;
+        }
+
+        if (length < capacity()) {
+            resize(length, false);
+        } else {
+            finishMigration();
+        }
+    }
+
+    /**
+     * Insert every value of the collection. The table is grown once up front to hold all of
+     * them instead of doubling repeatedly, and each value is hashed only once.
+     *
+     * @param values values to insert
+     * @return number of values that were inserted, not counting ones already present
+     * @throws NullPointerException if the collection or any of its values is null
+     */
+    @SuppressWarnings("unchecked")
+    public int insertAll(Collection<? extends T> values) {
+        return insertAll((T[]) values.toArray());
+    }
+
+    /**
+     * Insert every value of the array. The table is grown once up front to hold all of them
+     * instead of doubling repeatedly, and each value is hashed only once.
+     *
+     * @param values values to insert
+     * @return number of values that were inserted, not counting ones already present
+     * @throws NullPointerException if the array or any of its values is null
+     */
+    public int insertAll(T[] values) {
+        // Hash everything first so a null value is reported before the table changes
+        int[] valueHashes = hashAll(values);
+
+        // Grow once for the final size instead of doubling repeatedly along the way
+        presize(nElems + values.length);
+
+        int inserted = 0;
+        for (int i = 0; i < values.length; i++) {
+            if (insertHashed(values[i], valueHashes[i]) == null) {
+                inserted++;
+            }
+        }
+        return inserted;
+    }
+
+    /**
+     * Delete every value of the collection.
+     *
+     * @param values values to delete
+     * @return number of values that were deleted
+     * @throws NullPointerException if the collection or any of its values is null
+     */
+    @SuppressWarnings("unchecked")
+    public int deleteAll(Collection<? extends T> values) {
+        return deleteAll((T[]) values.toArray());
+    }
+
+    /**
+     * Delete every value of the array.
+     *
+     * @param values values to delete
+     * @return number of values that were deleted
+     * @throws NullPointerException if the array or any of its values is null
+     */
+    public int deleteAll(T[] values) {
+        int[] valueHashes = hashAll(values);
+
+        // Deleting does not grow the table, so a pending migration is finished once here
+        // instead of being advanced by every delete
+        finishMigration();
+
+        int deleted = 0;
+        for (int i = 0; i < values.length; i++) {
+            if (removeHashed(values[i], valueHashes[i]) != null) {
+                deleted++;
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * Look up every value of the collection.
+     *
+     * @param values values to look up
+     * @return bit i is set if the i-th value in iteration order is present
+     * @throws NullPointerException if the collection or any of its values is null
+     */
+    @SuppressWarnings("unchecked")
+    public BitSet lookupAll(Collection<? extends T> values) {
+        return lookupAll((T[]) values.toArray());
+    }
+
+    /**
+     * Look up every value of the array.
+     *
+     * @param values values to look up
+     * @return bit i is set if values[i] is present
+     * @throws NullPointerException if the array or any of its values is null
+     */
+    public BitSet lookupAll(T[] values) {
+        int[] valueHashes = hashAll(values);
+        BitSet found = new BitSet(values.length);
+        for (int i = 0; i < values.length; i++) {
+            if (lookupHashed(values[i], valueHashes[i])) {
+                found.set(i);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Union of this table and another one, built without changing either.
+     *
+     * @param other table to combine with
+     * @return new table holding every value of both tables
+     * @throws NullPointerException if other is null
+     */
+    public HashTable<T> union(HashTable<T> other) {
+        return union(other, false);
+    }
+
+    /**
+     * Union of this table and another one, built without changing either. Only the values of
+     * the other table need probing, and in parallel mode its slots are split across the common
+     * fork-join pool.
+     *
+     * @param other    table to combine with
+     * @param parallel true to probe on the common fork-join pool
+     * @return new table holding every value of both tables, with the instance from this table
+     *         for a value present in both
+     * @throws NullPointerException if other is null
+     */
+    public HashTable<T> union(HashTable<T> other, boolean parallel) {
+        if (other == null) {
+            // throws NullPointerException if the other table is null
+            throw new NullPointerException();
         }
+
+        Selection added = other.select(this, false, false, parallel);
+        HashTable<T> result = emptyCopy();
+        // Grow once for both parts, every value of this table is copied with its cached hash
+        result.presize((long) nElems + added.count);
+        result.addSelected(select(null, false, false, false));
+        result.addSelected(added);
+        return result;
+    }
+
+    /**
+     * Intersection of this table and another one, built without changing either.
+     *
+     * @param other table to intersect with
+     * @return new table holding the values present in both tables
+     * @throws NullPointerException if other is null
+     */
+    public HashTable<T> intersect(HashTable<T> other) {
+        return intersect(other, false);
+    }
+
+    /**
+     * Intersection of this table and another one, built without changing either. The smaller
+     * table is iterated and every value is probed in the larger one, and in parallel mode the
+     * slots of the smaller table are split across the common fork-join pool.
+     *
+     * @param other    table to intersect with
+     * @param parallel true to probe on the common fork-join pool
+     * @return new table holding the instances from this table of the values present in both
+     * @throws NullPointerException if other is null
+     */
+    public HashTable<T> intersect(HashTable<T> other, boolean parallel) {
+        if (other == null) {
+            // throws NullPointerException if the other table is null
+            throw new NullPointerException();
+        }
+
+        HashTable<T> smaller = other.nElems < nElems ? other : this;
+        HashTable<T> larger = smaller == this ? other : this;
+        HashTable<T> result = emptyCopy();
+        result.addSelected(smaller.select(larger, true, smaller == other, parallel));
+        return result;
+    }
+
+    /**
+     * Difference of this table and another one, built without changing either.
+     *
+     * @param other table whose values are left out
+     * @return new table holding the values of this table that are not in other
+     * @throws NullPointerException if other is null
+     */
+    public HashTable<T> difference(HashTable<T> other) {
+        return difference(other, false);
+    }
+
+    /**
+     * Difference of this table and another one, built without changing either. Every value
+     * of this table is probed in the other one, and in parallel mode the slots of this table
+     * are split across the common fork-join pool.
+     *
+     * @param other    table whose values are left out
+     * @param parallel true to probe on the common fork-join pool
+     * @return new table holding the values of this table that are not in other
+     * @throws NullPointerException if other is null
+     */
+    public HashTable<T> difference(HashTable<T> other, boolean parallel) {
+        if (other == null) {
+            // throws NullPointerException if the other table is null
+            throw new NullPointerException();
+        }
+
+        HashTable<T> result = emptyCopy();
+        result.addSelected(select(other, false, false, parallel));
+        return result;
+    }
+
+    /**
+     * Delete every value that is not present in the other table.
+     *
+     * @param other table of values to keep
+     * @return true if any value was deleted, false otherwise
+     * @throws NullPointerException if other is null
+     */
+    public boolean retainAll(HashTable<T> other) {
+        return retainAll(other, false);
+    }
+
+    /**
+     * Delete every value that is not present in the other table. When the other table is
+     * smaller, its values are probed here and this table is rebuilt from the ones found.
+     * Otherwise every value here is probed there and the missing ones are deleted. In parallel
+     * mode the probing is split across the common fork-join pool.
+     *
+     * @param other    table of values to keep
+     * @param parallel true to probe on the common fork-join pool
+     * @return true if any value was deleted, false otherwise
+     * @throws NullPointerException if other is null
+     */
+    public boolean retainAll(HashTable<T> other, boolean parallel) {
+        if (other == null) {
+            // throws NullPointerException if the other table is null
+            throw new NullPointerException();
+        }
+
+        if (other.nElems < nElems) {
+            // Every value of other is probed here, keeping the instance stored in this table
+            Selection common = other.select(this, true, true, parallel);
+            if (common.count == nElems) {
+                return false;
+            }
+            HashTable<T> result = emptyCopy();
+            result.addSelected(common);
+
+            // Take over the rebuilt slots, which leaves no incremental rehash pending
+            table = result.table;
+            hashes = result.hashes;
+            nElems = result.nElems;
+            oldTable = null;
+            oldHashes = null;
+            migrateLeft = 0;
+            modCount++;
+            return true;
+        }
+
+        Selection missing = select(other, false, false, parallel);
+        finishMigration();
+        for (int i = 0; i < missing.count; i++) {
+            removeHashed(cast(missing.values[i]), missing.hashes[i]);
+        }
+        return missing.count > 0;
     }
 
     /**
@@ -122,6 +736,7 @@ public class HashTable<T> {
      *
      * @return total number of elements
      */
+    @Override
     public int size() {
         return nElems;
     }
@@ -131,21 +746,459 @@ public class HashTable<T> {
      *
      * @return capacity
      */
+    @Override
     public int capacity() {
         // The capacity of the hash table is the length of the table array
         return table.length;
     }
 
     /**
-     * Hash function calculated by the hash code of value.
+     * Hash function calculated by the hash strategy. The top bit is always set so that a stored
+     * hash can never be mistaken for an empty slot.
      *
      * @param value input
-     * @return hash value (index)
+     * @return cached hash of the value
      */
     private int hashValue(T value) {
-        // Calls the hashCode() of the value and mod by the capacity of the hash table
-        // Value must be 0 or positive to be a valid index
-        return Math.abs(value.hashCode() % capacity());
+        return strategy.hash(value) | OCCUPIED_BIT;
+    }
+
+    /**
+     * Iterate over every value in the hash table, in no particular order.
+     *
+     * @return iterator over the values
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return Spliterators.iterator(spliterator());
+    }
+
+    /**
+     * Perform the action for every value in the hash table, in no particular order.
+     *
+     * @param action action to perform
+     * @throws NullPointerException            if the action is null
+     * @throws ConcurrentModificationException if the table is changed by the action
+     */
+    @Override
+    public void forEach(Consumer<? super T> action) {
+        spliterator().forEachRemaining(action);
+    }
+
+    /**
+     * Spliterator over every value in the hash table. It splits on ranges of slots, so
+     * parallel streams can divide the table without copying it, and reports the exact size
+     * until it is first split.
+     *
+     * @return spliterator over the values
+     */
+    @Override
+    public Spliterator<T> spliterator() {
+        int oldLength = oldTable == null ? 0 : oldTable.length;
+        return new SlotSpliterator(oldTable, table, 0, oldLength + table.length, nElems, modCount,
+                true);
+    }
+
+    /**
+     * Sequential stream of the values in the hash table.
+     *
+     * @return stream of the values
+     */
+    public Stream<T> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * Parallel stream of the values in the hash table. The table must not be changed while
+     * the stream runs.
+     *
+     * @return parallel stream of the values
+     */
+    public Stream<T> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
+    /**
+     * Hash every value of an array.
+     *
+     * @param values values to hash
+     * @return hash of values[i] at index i
+     * @throws NullPointerException if any value is null
+     */
+    private int[] hashAll(T[] values) {
+        int[] valueHashes = new int[values.length];
+        for (int i = 0; i < values.length; i++) {
+            valueHashes[i] = hashValue(values[i]);
+        }
+        return valueHashes;
+    }
+
+    /**
+     * Get the stored value equal to a non-null value whose hash has already been calculated.
+     *
+     * @param value    value to look for
+     * @param hash     hash of the value
+     * @param recorder recorder counting the probes
+     * @return the stored value, or null if no equal value is stored
+     */
+    private T storedHashed(T value, int hash, HashTableStats.Recorder recorder) {
+        int index = findSlot(table, hashes, value, hash, recorder);
+        if (index >= 0) {
+            return storedValue(table[index], value);
+        } else if (oldTable != null) {
+            index = findSlot(oldTable, oldHashes, value, hash, recorder);
+            if (index >= 0) {
+                return storedValue(oldTable[index], value);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Collect the values of this table, with their cached hashes, that are present in (or
+     * absent from) another table. In parallel mode the slot arrays of this table are split into
+     * ranges scanned by the common fork-join pool. Probing only reads the slots of the other
+     * table, and each range counts its probes on its own and adds them to the other table's
+     * stats under a lock once it is done.
+     *
+     * @param probed     table to probe, or null to collect every value
+     * @param present    true to collect the values found in probed, false for the others
+     * @param keepProbed true to collect the instance stored in probed for a value found there
+     * @param parallel   true to scan on the common fork-join pool
+     * @return the collected values
+     */
+    private Selection select(HashTable<T> probed, boolean present, boolean keepProbed,
+            boolean parallel) {
+        Selection selected = new Selection(strategy);
+        for (Object[] slots : new Object[][] {oldTable, table}) {
+            if (slots == null) {
+                continue;
+            }
+            SelectTask task = new SelectTask(slots, slots == table ? hashes : oldHashes, 0,
+                    slots.length, probed, present, keepProbed, parallel);
+            selected.append(parallel && slots.length > SPLIT_SLOTS
+                    ? ForkJoinPool.commonPool().invoke(task) : task.compute());
+        }
+        return selected;
+    }
+
+    /**
+     * Create an empty table with the same strategy, rehashing mode and load factors.
+     *
+     * @return empty table
+     */
+    private HashTable<T> emptyCopy() {
+        HashTable<T> copy = new HashTable<>(initialCapacity, incremental, strategy);
+        copy.minLoadFactor = minLoadFactor;
+        return copy;
+    }
+
+    /**
+     * Insert collected values, none of which are stored yet. Their cached hashes are reused
+     * when they were calculated by the same strategy.
+     *
+     * @param selected values to insert
+     */
+    private void addSelected(Selection selected) {
+        presize((long) nElems + selected.count);
+        boolean sameStrategy = selected.strategy == strategy;
+        for (int i = 0; i < selected.count; i++) {
+            T value = cast(selected.values[i]);
+            insertHashed(value, sameStrategy ? selected.hashes[i] : hashValue(value));
+        }
+    }
+
+    /**
+     * Unchecked cast of a stored element back to the value type.
+     *
+     * @param element stored element
+     * @return the element as a value
+     */
+    @SuppressWarnings("unchecked")
+    private T cast(Object element) {
+        return (T) element;
+    }
+
+    /**
+     * Home slot of a cached hash.
+     *
+     * @param hash   cached hash
+     * @param length power-of-two length of the slot array
+     * @return index the hash would occupy without any collisions
+     */
+    private static int homeIndex(int hash, int length) {
+        // Masking with the length replaces the division and also drops the occupied bit
+        return hash & (length - 1);
+    }
+
+    /**
+     * Distance of the slot at index from the home slot of the hash stored in it.
+     *
+     * @param hash   cached hash stored at index
+     * @param index  slot holding the hash
+     * @param length power-of-two length of the slot array
+     * @return number of probes past the home slot
+     */
+    private static int probeDistance(int hash, int index, int length) {
+        // Masking accounts for clusters that wrap around
+        return (index - homeIndex(hash, length)) & (length - 1);
+    }
+
+    /**
+     * Find the slot holding the given value.
+     *
+     * @param slots      slot array to search
+     * @param slotHashes cached hashes of slots
+     * @param value      value to find
+     * @param hash       cached hash of the value
+     * @return index of the value (or of the TreeBin holding it), or (-(insertion index) - 1) if
+     *         the value is not stored, where the insertion index is the slot at which Robin
+     *         Hood placement would continue
+     */
+    private int findSlot(Object[] slots, int[] slotHashes, T value, int hash) {
+        return findSlot(slots, slotHashes, value, hash, stats);
+    }
+
+    /**
+     * Find the slot holding the given value, counting the probe with the given recorder.
+     *
+     * @param slots      slot array to search
+     * @param slotHashes cached hashes of slots
+     * @param value      value to find
+     * @param hash       cached hash of the value
+     * @param recorder   recorder counting the probe
+     * @return index of the value (or of the TreeBin holding it), or (-(insertion index) - 1) if
+     *         the value is not stored
+     */
+    private int findSlot(Object[] slots, int[] slotHashes, T value, int hash,
+            HashTableStats.Recorder recorder) {
+        int length = slots.length;
+        int index = homeIndex(hash, length);
+
+        // Robin Hood invariant: once we have probed further than the resident of a slot, the
+        // value cannot appear later in the cluster
+        int dist = 0;
+        for (; slotHashes[index] != EMPTY; dist++) {
+            if (dist > probeDistance(slotHashes[index], index, length)) {
+                recorder.probed(false, dist + 1);
+                return -index - 1;
+            } else if (slotHashes[index] == hash && storedValue(slots[index], value) != null) {
+                recorder.probed(true, dist + 1);
+                return index;
+            }
+            index = (index + 1) & (length - 1);
+        }
+
+        // Not found if an empty slot was reached before finding the value
+        recorder.probed(false, dist + 1);
+        return -index - 1;
+    }
+
+    /**
+     * Probe one slot array for a value accepted by a predicate, stopping where findSlot would.
+     *
+     * @param slots      slot array to search
+     * @param slotHashes cached hashes of slots
+     * @param hash       cached hash of the wanted value
+     * @param matches    accepts the wanted value
+     * @return the stored value accepted by matches, or null if the slot array has none
+     */
+    @SuppressWarnings("unchecked")
+    private T findMatch(Object[] slots, int[] slotHashes, int hash, Predicate<? super T> matches) {
+        int length = slots.length;
+        int index = homeIndex(hash, length);
+
+        int dist = 0;
+        for (; slotHashes[index] != EMPTY; dist++) {
+            if (dist > probeDistance(slotHashes[index], index, length)) {
+                break;
+            } else if (slotHashes[index] == hash) {
+                Object resident = slots[index];
+                if (resident instanceof HashTable.TreeBin) {
+                    // A bin cannot be searched in order by a predicate, so scan its values
+                    for (T value : ((TreeBin) resident).values()) {
+                        if (matches.test(value)) {
+                            stats.probed(true, dist + 1);
+                            return value;
+                        }
+                    }
+                } else if (matches.test((T) resident)) {
+                    stats.probed(true, dist + 1);
+                    return (T) resident;
+                }
+            }
+            index = (index + 1) & (length - 1);
+        }
+
+        stats.probed(false, dist + 1);
+        return null;
+    }
+
+    /**
+     * Get the value equal to the given value held by a slot.
+     *
+     * @param resident content of a slot with a matching hash, a value or a TreeBin
+     * @param value    value being looked for
+     * @return the stored value equal to value, or null if the slot does not hold one
+     */
+    @SuppressWarnings("unchecked")
+    private T storedValue(Object resident, T value) {
+        if (resident instanceof HashTable.TreeBin) {
+            return ((TreeBin) resident).find(value);
+        } else {
+            return strategy.equals(value, (T) resident) ? (T) resident : null;
+        }
+    }
+
+    /**
+     * Remove a value from the slot holding it, either the whole slot or from its TreeBin.
+     *
+     * @param slots      slot array holding the value
+     * @param slotHashes cached hashes of slots
+     * @param index      slot holding the value or its TreeBin
+     * @param value      value to remove
+     * @return the removed stored value
+     */
+    @SuppressWarnings("unchecked")
+    private T removeValueAt(Object[] slots, int[] slotHashes, int index, T value) {
+        if (!(slots[index] instanceof HashTable.TreeBin)) {
+            T removed = (T) slots[index];
+            removeAt(slots, slotHashes, index);
+            return removed;
+        }
+
+        TreeBin bin = (TreeBin) slots[index];
+        T removed = bin.remove(value);
+        if (bin.size() == 0) {
+            removeAt(slots, slotHashes, index);
+        } else if (bin.size() < UNTREEIFY_THRESHOLD && slots == table) {
+            // Spread a small bin back out into ordinary slots of the current table
+            int hash = slotHashes[index];
+            removeAt(slots, slotHashes, index);
+            for (T resident : bin.values()) {
+                place(resident, hash, homeIndex(hash, capacity()), 0);
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Collapse the values in the current table that share the given hash into one TreeBin once
+     * more than TREEIFY_THRESHOLD of them sit in ordinary slots. If the run already has a bin,
+     * the loose values are added to it where it stands, so a flood of one hash costs O(log n)
+     * per insert instead of copying the whole bin every few inserts.
+     *
+     * @param hash cached hash shared by the values
+     */
+    @SuppressWarnings("unchecked")
+    private void treeifyIfNeeded(int hash) {
+        int length = capacity();
+        int loose = 0;
+        TreeBin bin = null;
+        int index = homeIndex(hash, length);
+
+        // Count the ordinary slots holding the hash, the run ends where findSlot would stop
+        for (int dist = 0; hashes[index] != EMPTY
+                && dist <= probeDistance(hashes[index], index, length); dist++) {
+            if (hashes[index] == hash) {
+                if (table[index] instanceof HashTable.TreeBin) {
+                    bin = (TreeBin) table[index];
+                } else {
+                    loose++;
+                }
+            }
+            index = (index + 1) & (length - 1);
+        }
+        if (loose <= TREEIFY_THRESHOLD) {
+            return;
+        }
+
+        // Pull the loose values out of the table, the existing bin keeps its slot
+        boolean placeBin = bin == null;
+        if (placeBin) {
+            bin = new TreeBin();
+        }
+        for (index = firstLooseSlot(hash); index >= 0; index = firstLooseSlot(hash)) {
+            bin.add((T) table[index]);
+            removeAt(table, hashes, index);
+        }
+        if (placeBin) {
+            place(bin, hash, homeIndex(hash, length), 0);
+        }
+    }
+
+    /**
+     * Find the first slot of the current table caching the given hash that holds a single
+     * value rather than a TreeBin.
+     *
+     * @param hash cached hash to find
+     * @return index of the slot, or -1 if no such slot exists
+     */
+    private int firstLooseSlot(int hash) {
+        int length = capacity();
+        int index = homeIndex(hash, length);
+
+        for (int dist = 0; hashes[index] != EMPTY
+                && dist <= probeDistance(hashes[index], index, length); dist++) {
+            if (hashes[index] == hash && !(table[index] instanceof HashTable.TreeBin)) {
+                return index;
+            }
+            index = (index + 1) & (length - 1);
+        }
+        return -1;
+    }
+
+    /**
+     * Place a value in the table, displacing residents that are closer to their home slot.
+     *
+     * @param value value to place
+     * @param hash  cached hash of the value
+     * @param index slot to start probing from
+     * @param dist  probe distance of index from the home slot of the value
+     */
+    private void place(Object value, int hash, int index, int dist) {
+        int length = capacity();
+        while (hashes[index] != EMPTY) {
+            int residentDist = probeDistance(hashes[index], index, length);
+            if (residentDist < dist) {
+                // Take the slot from the richer resident and carry it forward instead
+                Object tempValue = table[index];
+                int tempHash = hashes[index];
+                table[index] = value;
+                hashes[index] = hash;
+                value = tempValue;
+                hash = tempHash;
+                dist = residentDist;
+            }
+            index = (index + 1) & (length - 1);
+            dist++;
+        }
+
+        table[index] = value;
+        hashes[index] = hash;
+    }
+
+    /**
+     * Empty the slot at index and shift the following displaced values back by one.
+     *
+     * @param slots      slot array holding the value
+     * @param slotHashes cached hashes of slots
+     * @param index      slot to empty
+     */
+    private static void removeAt(Object[] slots, int[] slotHashes, int index) {
+        int length = slots.length;
+        int next = (index + 1) & (length - 1);
+
+        // Every value after the hole that is not in its home slot moves one step closer to it
+        while (slotHashes[next] != EMPTY && probeDistance(slotHashes[next], next, length) > 0) {
+            slots[index] = slots[next];
+            slotHashes[index] = slotHashes[next];
+            index = next;
+            next = (next + 1) & (length - 1);
+        }
+
+        slots[index] = null;
+        slotHashes[index] = EMPTY;
     }
 
     /**
@@ -161,26 +1214,545 @@ public class HashTable<T> {
     /**
      * Double the capacity of the array and rehash all values.
      */
-    @SuppressWarnings("unchecked")
     private void rehash() {
-        // Temporary LinkedList to store all non-null values in the hash table
-        LinkedList<T> temp = new LinkedList<>();
+        resize(capacity() * RESIZE_FACTOR, incremental);
+    }
+
+    /**
+     * Grow the table once, if needed, so that it can hold the expected number of values
+     * without rehashing again.
+     *
+     * @param expected number of values the table should be able to hold
+     */
+    private void presize(long expected) {
+        // The load factor is checked before each insert, so the last value may push it past ⅔
+        long needed = (long) Math.ceil((expected - 1) / MAX_LOAD_FACTOR);
+        if (needed > capacity()) {
+            int length = capacity();
+            while (length < needed) {
+                length *= RESIZE_FACTOR;
+            }
+            // A bulk load is already a long operation, so the values are moved right away
+            resize(length, false);
+        } else {
+            // Bulk inserts do not advance an incremental rehash, so finish it up front
+            finishMigration();
+        }
+    }
+
+    /**
+     * Move every value into a new table of the given length.
+     *
+     * @param length new capacity, a power of two
+     * @param spread whether to migrate the values incrementally
+     */
+    private void resize(int length, boolean spread) {
+        // An unfinished incremental rehash must complete before the table can grow again
+        finishMigration();
+        modCount++;
+        long started = stats.rehashStarted();
+
+        // Keep the old slots around while the new arrays are filled
+        Object[] prevTable = table;
+        int[] prevHashes = hashes;
+
+        table = new Object[length];
+        hashes = new int[table.length];
+
+        if (spread) {
+            // Start migrating just after an empty slot so every step moves whole clusters and
+            // the values left behind can still be found by probing the old table
+            int start = 0;
+            while (prevHashes[start] != EMPTY) {
+                start++;
+            }
+            oldTable = prevTable;
+            oldHashes = prevHashes;
+            migrateIndex = (start + 1) & (prevTable.length - 1);
+            migrateLeft = prevTable.length;
+        } else {
+            // Every old value is known to be unique, so place it directly using its cached hash
+            // without looking it up or calling hashCode() again
+            for (int i = 0; i < prevTable.length; i++) {
+                if (prevHashes[i] != EMPTY) {
+                    place(prevTable[i], prevHashes[i], homeIndex(prevHashes[i], capacity()), 0);
+                }
+            }
+        }
+        stats.rehashEnded(started, length);
+    }
+
+    /**
+     * Migrate at least MIGRATION_STEP slots of the old table during an incremental rehash,
+     * stopping only at the end of a cluster.
+     */
+    private void migrateStep() {
+        if (oldTable == null) {
+            return;
+        }
+
+        modCount++;
+        long started = stats.rehashStarted();
+        int scanned = 0;
+        // Keep going past the step size until an empty slot ends the current cluster, since a
+        // half migrated cluster would break probing in the old table
+        while (migrateLeft > 0 && (scanned < MIGRATION_STEP || oldHashes[migrateIndex] != EMPTY)) {
+            int hash = oldHashes[migrateIndex];
+            if (hash != EMPTY) {
+                place(oldTable[migrateIndex], hash, homeIndex(hash, capacity()), 0);
+                oldTable[migrateIndex] = null;
+                oldHashes[migrateIndex] = EMPTY;
+            }
+            migrateIndex = (migrateIndex + 1) & (oldTable.length - 1);
+            migrateLeft--;
+            scanned++;
+        }
+
+        if (migrateLeft == 0) {
+            // Release the old arrays once every slot has been migrated
+            oldTable = null;
+            oldHashes = null;
+        }
+        stats.rehashEnded(started, 0);
+    }
+
+    /**
+     * Migrate every remaining slot of an in-progress incremental rehash.
+     */
+    private void finishMigration() {
+        while (oldTable != null) {
+            migrateStep();
+        }
+    }
+
+    /**
+     * Spliterator over a range of slots. During an incremental rehash the slots of the old
+     * table come first, followed by the slots of the current table, so together they cover
+     * every value exactly once. A TreeBin slot yields each value in the bin.
+     */
+    private final class SlotSpliterator implements Spliterator<T> {
+        private final Object[] oldSlots; // old table being migrated, or null
+        private final Object[] slots; // current table
+        private int index; // next slot to visit, old table slots first
+        private final int fence; // one past the last slot to visit
+        private long estimate; // number of values left, exact until split
+        private final int expectedModCount; // modCount the slots must still have
+        private boolean exact; // whether estimate is the exact number of values
+        private Iterator<T> binValues; // remaining values of the current TreeBin, or null
+
+        /**
+         * Constructor for a spliterator over slots [index, fence).
+         *
+         * @param oldSlots         old table being migrated, or null
+         * @param slots            current table
+         * @param index            first slot to visit
+         * @param fence            one past the last slot to visit
+         * @param estimate         number of values in the range
+         * @param expectedModCount modCount of the table when iteration started
+         * @param exact            whether estimate is exact
+         */
+        SlotSpliterator(Object[] oldSlots, Object[] slots, int index, int fence, long estimate,
+                int expectedModCount, boolean exact) {
+            this.oldSlots = oldSlots;
+            this.slots = slots;
+            this.index = index;
+            this.fence = fence;
+            this.estimate = estimate;
+            this.expectedModCount = expectedModCount;
+            this.exact = exact;
+        }
+
+        /**
+         * Perform the action for the next value, if there is one.
+         *
+         * @param action action to perform
+         * @return false if no values were left
+         * @throws NullPointerException            if the action is null
+         * @throws ConcurrentModificationException if the table changed during iteration
+         */
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (action == null) {
+                // throws NullPointerException if the action is null
+                throw new NullPointerException();
+            }
+
+            while (binValues == null || !binValues.hasNext()) {
+                binValues = null;
+                if (index >= fence) {
+                    return false;
+                }
+                Object resident = slotAt(index++);
+                if (resident instanceof HashTable.TreeBin) {
+                    binValues = ((TreeBin) resident).values().iterator();
+                } else if (resident != null) {
+                    action.accept((T) resident);
+                    checkForComodification();
+                    return true;
+                }
+            }
+
+            action.accept(binValues.next());
+            checkForComodification();
+            return true;
+        }
+
+        /**
+         * Perform the action for every remaining value.
+         *
+         * @param action action to perform
+         * @throws NullPointerException            if the action is null
+         * @throws ConcurrentModificationException if the table changed during iteration
+         */
+        @Override
+        @SuppressWarnings("unchecked")
+        public void forEachRemaining(Consumer<? super T> action) {
+            if (action == null) {
+                // throws NullPointerException if the action is null
+                throw new NullPointerException();
+            }
+
+            if (binValues != null) {
+                binValues.forEachRemaining(action);
+                binValues = null;
+            }
+            // Scan the slot arrays directly instead of going through tryAdvance per value
+            for (; index < fence; index++) {
+                Object resident = slotAt(index);
+                if (resident instanceof HashTable.TreeBin) {
+                    ((TreeBin) resident).values().forEach(action);
+                } else if (resident != null) {
+                    action.accept((T) resident);
+                }
+            }
+            checkForComodification();
+        }
+
+        /**
+         * Split off the first half of the remaining slots.
+         *
+         * @return spliterator over the first half, or null if too few slots are left
+         */
+        @Override
+        public Spliterator<T> trySplit() {
+            int mid = (index + fence) >>> 1;
+            if (mid <= index) {
+                return null;
+            }
+
+            // Values are spread evenly over the slots, so each half gets half the estimate
+            estimate >>>= 1;
+            exact = false;
+            Spliterator<T> prefix = new SlotSpliterator(oldSlots, slots, index, mid, estimate,
+                    expectedModCount, false);
+            index = mid;
+            return prefix;
+        }
+
+        /**
+         * Estimate the number of values left.
+         *
+         * @return number of values left, exact until the spliterator is split
+         */
+        @Override
+        public long estimateSize() {
+            return estimate;
+        }
+
+        /**
+         * Characteristics of the values. SIZED is only reported while the size is exact.
+         *
+         * @return characteristics bit set
+         */
+        @Override
+        public int characteristics() {
+            return DISTINCT | NONNULL | (exact ? SIZED : 0);
+        }
+
+        /**
+         * Get the slot at a position counting the old table first.
+         *
+         * @param position position in [0, fence)
+         * @return content of the slot, or null if it is empty
+         */
+        private Object slotAt(int position) {
+            int oldLength = oldSlots == null ? 0 : oldSlots.length;
+            return position < oldLength ? oldSlots[position] : slots[position - oldLength];
+        }
+
+        /**
+         * Checks that the table has not been changed since iteration started.
+         *
+         * @throws ConcurrentModificationException if the table changed
+         */
+        private void checkForComodification() {
+            if (modCount != expectedModCount) {
+                // throws ConcurrentModificationException if the table changed under iteration
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+
+    /**
+     * Values collected by a set operation, next to the hashes their table cached for them.
+     */
+    private static final class Selection {
+        private final HashStrategy<?> strategy; // strategy that calculated the hashes
+        private Object[] values = new Object[MIN_CAPACITY]; // collected values
+        private int[] hashes = new int[MIN_CAPACITY]; // cached hash of values[i] at index i
+        private int count; // number of values collected
+
+        /**
+         * Constructor for an empty selection.
+         *
+         * @param strategy strategy that calculated the hashes
+         */
+        Selection(HashStrategy<?> strategy) {
+            this.strategy = strategy;
+        }
+
+        /**
+         * Add a value with its cached hash.
+         *
+         * @param value value to add
+         * @param hash  cached hash of the value
+         */
+        void add(Object value, int hash) {
+            if (count == values.length) {
+                values = Arrays.copyOf(values, count * RESIZE_FACTOR);
+                hashes = Arrays.copyOf(hashes, count * RESIZE_FACTOR);
+            }
+            values[count] = value;
+            hashes[count++] = hash;
+        }
+
+        /**
+         * Add every value of another selection.
+         *
+         * @param other selection to add
+         * @return this selection
+         */
+        Selection append(Selection other) {
+            if (count + other.count > values.length) {
+                values = Arrays.copyOf(values, count + other.count);
+                hashes = Arrays.copyOf(hashes, count + other.count);
+            }
+            System.arraycopy(other.values, 0, values, count, other.count);
+            System.arraycopy(other.hashes, 0, hashes, count, other.count);
+            count += other.count;
+            return this;
+        }
+    }
+
+    /**
+     * Scan of a range of slots for a set operation. In parallel mode a range longer than
+     * SPLIT_SLOTS is halved and the halves are scanned by the fork-join pool.
+     */
+    @SuppressWarnings("serial")
+    private final class SelectTask extends RecursiveTask<Selection> {
+        private final Object[] slots; // slot array to scan
+        private final int[] slotHashes; // cached hashes of slots
+        private final int from; // first slot to scan
+        private final int to; // one past the last slot to scan
+        private final HashTable<T> probed; // table to probe, or null to collect every value
+        private final boolean present; // whether values found in probed are collected
+        private final boolean keepProbed; // whether the instance from probed is collected
+        private final boolean parallel; // whether long ranges are split
+
+        /**
+         * Constructor for a scan of slots [from, to).
+         *
+         * @param slots      slot array to scan
+         * @param slotHashes cached hashes of slots
+         * @param from       first slot to scan
+         * @param to         one past the last slot to scan
+         * @param probed     table to probe, or null to collect every value
+         * @param present    true to collect the values found in probed, false for the others
+         * @param keepProbed true to collect the instance stored in probed for a value found
+         * @param parallel   true to split long ranges
+         */
+        SelectTask(Object[] slots, int[] slotHashes, int from, int to, HashTable<T> probed,
+                boolean present, boolean keepProbed, boolean parallel) {
+            this.slots = slots;
+            this.slotHashes = slotHashes;
+            this.from = from;
+            this.to = to;
+            this.probed = probed;
+            this.present = present;
+            this.keepProbed = keepProbed;
+            this.parallel = parallel;
+        }
+
+        /**
+         * Scan the range, splitting it first if it is long enough.
+         *
+         * @return the values collected from the range
+         */
+        @Override
+        @SuppressWarnings("unchecked")
+        protected Selection compute() {
+            if (parallel && to - from > SPLIT_SLOTS) {
+                int middle = (from + to) >>> 1;
+                SelectTask left = new SelectTask(slots, slotHashes, from, middle, probed,
+                        present, keepProbed, true);
+                left.fork();
+                Selection right = new SelectTask(slots, slotHashes, middle, to, probed,
+                        present, keepProbed, true).compute();
+                return left.join().append(right);
+            }
+
+            // Fork-join threads must not share the probed table's counters, so in parallel mode
+            // the range counts its probes on its own and merges them when it is done
+            HashTableStats.Recorder shared = probed != null ? probed.stats : NO_STATS;
+            HashTableStats.Recorder recorder = parallel
+                    && shared instanceof HashTableStats.CountingRecorder
+                    ? new HashTableStats.CountingRecorder() : shared;
+
+            Selection selected = new Selection(strategy);
+            for (int i = from; i < to; i++) {
+                if (slots[i] instanceof HashTable.TreeBin) {
+                    for (T value : ((TreeBin) slots[i]).values()) {
+                        test(value, slotHashes[i], selected, recorder);
+                    }
+                } else if (slotHashes[i] != EMPTY) {
+                    test(cast(slots[i]), slotHashes[i], selected, recorder);
+                }
+            }
 
-        // Add all the non-null values from hash table to the temp list
-        for (LinkedList<T> lst : table) {
-            if (lst != null) {
-                temp.addAll(lst);
+            if (recorder != shared) {
+                synchronized (shared) {
+                    ((HashTableStats.CountingRecorder) shared).addProbes(recorder);
+                }
             }
+            return selected;
         }
 
-        // Double the capacity of the LinkedList
-        table = new LinkedList[capacity() * RESIZE_FACTOR];
-        // No values in the hash table after resizing
-        nElems = 0;
+        /**
+         * Probe for one value and collect it if it belongs in the result.
+         *
+         * @param value    value from the scanned slots
+         * @param hash     cached hash of the value
+         * @param selected values collected so far
+         * @param recorder recorder counting the probe
+         */
+        private void test(T value, int hash, Selection selected,
+                HashTableStats.Recorder recorder) {
+            if (probed == null) {
+                selected.add(value, hash);
+                return;
+            }
+
+            // The cached hash is reused when the probed table hashes the same way
+            T match = probed.storedHashed(value,
+                    probed.strategy == strategy ? hash : probed.hashValue(value), recorder);
+            if ((match != null) == present) {
+                selected.add(match != null && keepProbed ? match : value, hash);
+            }
+        }
+    }
+
+    /**
+     * Slot content that replaces a run of values sharing one hash. Values are kept sorted in
+     * natural order when they are all Comparable instances of one class and the table uses the
+     * default strategy, which gives O(log n) probes. Otherwise every value has the same hash,
+     * so nothing is left to order by and the bin falls back to a list. The bin also falls back
+     * to a list when two values that are not equal compare as 0, since the order alone could
+     * not tell them apart.
+     */
+    private final class TreeBin {
+        private TreeSet<T> sorted = new TreeSet<>(); // values in natural order, or null
+        private ArrayList<T> unsorted; // values once they cannot be sorted, or null
+
+        /**
+         * Find the stored value equal to the given value.
+         *
+         * @param value value to find
+         * @return the stored value, or null if the bin does not hold it
+         */
+        @SuppressWarnings("unchecked")
+        T find(T value) {
+            if (sorted != null) {
+                if (!canSort(value)) {
+                    return null;
+                }
+                // An order match is only a match if the values are equal too
+                T floor = sorted.floor(value);
+                return floor != null && ((Comparable<Object>) floor).compareTo(value) == 0
+                        && strategy.equals(value, floor) ? floor : null;
+            }
+            for (T resident : unsorted) {
+                if (strategy.equals(value, resident)) {
+                    return resident;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Add a value that is not already in the bin.
+         *
+         * @param value value to add
+         */
+        void add(T value) {
+            if (sorted != null && (!canSort(value) || sorted.contains(value))) {
+                // One value that cannot be ordered, or that the order cannot tell apart from a
+                // different value, turns the whole bin into a list
+                unsorted = new ArrayList<>(sorted);
+                sorted = null;
+            }
+            if (sorted != null) {
+                sorted.add(value);
+            } else {
+                unsorted.add(value);
+            }
+        }
+
+        /**
+         * Remove the stored value equal to the given value.
+         *
+         * @param value value to remove
+         * @return the removed value, or null if the bin does not hold it
+         */
+        T remove(T value) {
+            T stored = find(value);
+            if (stored != null) {
+                if (sorted != null) {
+                    sorted.remove(stored);
+                } else {
+                    unsorted.remove(stored);
+                }
+            }
+            return stored;
+        }
+
+        /**
+         * Returns the number of values in the bin.
+         *
+         * @return number of values
+         */
+        int size() {
+            return sorted != null ? sorted.size() : unsorted.size();
+        }
+
+        /**
+         * Returns the values in the bin.
+         *
+         * @return values in the bin
+         */
+        Collection<T> values() {
+            return sorted != null ? sorted : unsorted;
+        }
 
-        // Re-insert all values in the temp array into the hash table
-        for (T val: temp) {
-            insert(val);
+        /**
+         * Check if a value can be kept in natural order alongside the current values.
+         *
+         * @param value value to check
+         * @return true if the value is Comparable with the values already in the bin
+         */
+        private boolean canSort(T value) {
+            return strategy instanceof DefaultHashStrategy && value instanceof Comparable
+                    && (sorted.isEmpty() || sorted.first().getClass() == value.getClass());
         }
     }
 }
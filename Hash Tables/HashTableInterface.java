@@ -0,0 +1,52 @@
+/*
+ * Name: Arjun Sawhney
+ */
+
+/**
+ * Hash table interface shared by the HashTable variants so one can be swapped for another.
+ *
+ * @param <T> Generic type of value
+ */
+public interface HashTableInterface<T> {
+
+    /**
+     * Insert the value into the hash table.
+     *
+     * @param value value to insert
+     * @return true if the value was inserted, false if the value was already present
+     * @throws NullPointerException if the value is null
+     */
+    boolean insert(T value) throws NullPointerException;
+
+    /**
+     * Delete the given value from the hash table.
+     *
+     * @param value value to delete
+     * @return true if the value was deleted, false if the value was not found
+     * @throws NullPointerException if the value is null
+     */
+    boolean delete(T value) throws NullPointerException;
+
+    /**
+     * Check if the given value is present in the hash table.
+     *
+     * @param value value to look up
+     * @return true if the value was found, false if the value was not found
+     * @throws NullPointerException if the value is null
+     */
+    boolean lookup(T value) throws NullPointerException;
+
+    /**
+     * Get the total number of elements stored in the hash table.
+     *
+     * @return total number of elements
+     */
+    int size();
+
+    /**
+     * Get the capacity of the hash table.
+     *
+     * @return capacity
+     */
+    int capacity();
+}
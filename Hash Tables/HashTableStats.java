@@ -0,0 +1,323 @@
+/*
+ * Name: Arjun Sawhney
+ */
+
+/**
+ * Snapshot of how a HashTable is behaving, used to tune its capacity and load factors. The
+ * layout figures (occupancy and the probe length histogram) are always exact. The probe and
+ * rehash counters only cover the time since HashTable.enableStats was called and are zero
+ * otherwise.
+ *
+ * @author Arjun Sawhney
+ * @since 06/05/2020
+ */
+public final class HashTableStats {
+    // constants
+    private static final int REFERENCE_BYTES = 4; // bytes per slot reference, compressed oops
+
+    // instance variables
+    private final int size; // number of values stored
+    private final int capacity; // number of slots
+    private final int occupiedSlots; // slots holding a value or a TreeBin
+    private final int treeBins; // slots holding a TreeBin
+    private final long[] probeLengths; // values needing i + 1 probes to be found, at index i
+    private final long hits; // probes that found their value
+    private final long hitProbes; // slots examined by probes that found their value
+    private final int maxHitProbe; // most slots examined by one probe that found its value
+    private final long misses; // probes that did not find their value
+    private final long missProbes; // slots examined by probes that did not find their value
+    private final int maxMissProbe; // most slots examined by one probe that did not
+    private final int rehashes; // number of resizes
+    private final long rehashNanos; // time spent resizing and migrating
+    private final long bytesAllocated; // bytes of slot arrays allocated by resizes
+
+    /**
+     * Constructor for a snapshot.
+     *
+     * @param size          number of values stored
+     * @param capacity      number of slots
+     * @param occupiedSlots slots holding a value or a TreeBin
+     * @param treeBins      slots holding a TreeBin
+     * @param probeLengths  values needing i + 1 probes to be found, at index i
+     * @param recorder      counters recorded since stats were enabled
+     */
+    HashTableStats(int size, int capacity, int occupiedSlots, int treeBins,
+            long[] probeLengths, Recorder recorder) {
+        this.size = size;
+        this.capacity = capacity;
+        this.occupiedSlots = occupiedSlots;
+        this.treeBins = treeBins;
+        this.probeLengths = probeLengths;
+        hits = recorder.hits;
+        hitProbes = recorder.hitProbes;
+        maxHitProbe = recorder.maxHitProbe;
+        misses = recorder.misses;
+        missProbes = recorder.missProbes;
+        maxMissProbe = recorder.maxMissProbe;
+        rehashes = recorder.rehashes;
+        rehashNanos = recorder.rehashNanos;
+        bytesAllocated = recorder.bytesAllocated;
+    }
+
+    /**
+     * Returns the number of values stored.
+     *
+     * @return number of values
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of slots.
+     *
+     * @return capacity
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the number of slots holding a value or a TreeBin.
+     *
+     * @return occupied slots
+     */
+    public int occupiedSlots() {
+        return occupiedSlots;
+    }
+
+    /**
+     * Returns the fraction of slots that are occupied.
+     *
+     * @return occupancy between 0 and 1
+     */
+    public double occupancy() {
+        return (double) occupiedSlots / capacity;
+    }
+
+    /**
+     * Returns the number of slots holding a TreeBin of same-hash values.
+     *
+     * @return number of TreeBins
+     */
+    public int treeBins() {
+        return treeBins;
+    }
+
+    /**
+     * Returns the probe length histogram. Entry i counts the stored values that a lookup finds
+     * after examining i + 1 slots, the open addressing equivalent of a chain length.
+     *
+     * @return copy of the histogram
+     */
+    public long[] probeLengthHistogram() {
+        return probeLengths.clone();
+    }
+
+    /**
+     * Returns the number of probes that found their value.
+     *
+     * @return number of hits
+     */
+    public long hits() {
+        return hits;
+    }
+
+    /**
+     * Returns the average number of slots examined by probes that found their value.
+     *
+     * @return average probe length of hits, or 0 if there were none
+     */
+    public double averageHitProbe() {
+        return hits == 0 ? 0 : (double) hitProbes / hits;
+    }
+
+    /**
+     * Returns the most slots examined by one probe that found its value.
+     *
+     * @return longest probe of a hit
+     */
+    public int maxHitProbe() {
+        return maxHitProbe;
+    }
+
+    /**
+     * Returns the number of probes that did not find their value, including the probe of
+     * every insert of a new value.
+     *
+     * @return number of misses
+     */
+    public long misses() {
+        return misses;
+    }
+
+    /**
+     * Returns the average number of slots examined by probes that did not find their value.
+     *
+     * @return average probe length of misses, or 0 if there were none
+     */
+    public double averageMissProbe() {
+        return misses == 0 ? 0 : (double) missProbes / misses;
+    }
+
+    /**
+     * Returns the most slots examined by one probe that did not find its value.
+     *
+     * @return longest probe of a miss
+     */
+    public int maxMissProbe() {
+        return maxMissProbe;
+    }
+
+    /**
+     * Returns the number of times the table was resized.
+     *
+     * @return number of rehashes
+     */
+    public int rehashes() {
+        return rehashes;
+    }
+
+    /**
+     * Returns the total time spent resizing, including incremental migration steps.
+     *
+     * @return cumulative rehash time in nanoseconds
+     */
+    public long rehashNanos() {
+        return rehashNanos;
+    }
+
+    /**
+     * Returns the bytes of slot and hash arrays allocated by resizes, assuming compressed
+     * references.
+     *
+     * @return bytes allocated
+     */
+    public long bytesAllocated() {
+        return bytesAllocated;
+    }
+
+    /**
+     * Summary of the snapshot for logging.
+     *
+     * @return readable summary
+     */
+    @Override
+    public String toString() {
+        return String.format("size=%d capacity=%d occupancy=%.3f treeBins=%d hits=%d "
+                        + "avgHitProbe=%.2f maxHitProbe=%d misses=%d avgMissProbe=%.2f "
+                        + "maxMissProbe=%d rehashes=%d rehashMillis=%.3f bytesAllocated=%d",
+                size, capacity, occupancy(), treeBins, hits, averageHitProbe(), maxHitProbe,
+                misses, averageMissProbe(), maxMissProbe, rehashes, rehashNanos / 1e6,
+                bytesAllocated);
+    }
+
+    /**
+     * Hooks a HashTable calls on every probe and resize. This base class ignores every call
+     * and is what a table uses while stats are disabled. Its methods are empty, so the JIT
+     * inlines them away and the hooks cost nothing, without any enabled check on the hot path.
+     */
+    static class Recorder {
+        // instance variables
+        long hits; // probes that found their value
+        long hitProbes; // slots examined by probes that found their value
+        int maxHitProbe; // most slots examined by one hit
+        long misses; // probes that did not find their value
+        long missProbes; // slots examined by probes that did not find their value
+        int maxMissProbe; // most slots examined by one miss
+        int rehashes; // number of resizes
+        long rehashNanos; // time spent resizing and migrating
+        long bytesAllocated; // bytes of slot arrays allocated by resizes
+
+        /**
+         * Called after a probe of one slot array.
+         *
+         * @param found  whether the probe found its value
+         * @param probes number of slots examined
+         */
+        void probed(boolean found, int probes) {
+        }
+
+        /**
+         * Called before resizing or migrating.
+         *
+         * @return start time to pass to rehashEnded
+         */
+        long rehashStarted() {
+            return 0;
+        }
+
+        /**
+         * Called after resizing or migrating.
+         *
+         * @param start  value returned by rehashStarted
+         * @param length length of the slot array allocated, or 0 for a migration step
+         */
+        void rehashEnded(long start, int length) {
+        }
+    }
+
+    /**
+     * Recorder that counts every probe and times every resize.
+     */
+    static final class CountingRecorder extends Recorder {
+        /**
+         * Add the probes counted by another recorder, so threads can count on their own and
+         * merge once they are done.
+         *
+         * @param other recorder whose probes to add
+         */
+        void addProbes(Recorder other) {
+            hits += other.hits;
+            hitProbes += other.hitProbes;
+            maxHitProbe = Math.max(maxHitProbe, other.maxHitProbe);
+            misses += other.misses;
+            missProbes += other.missProbes;
+            maxMissProbe = Math.max(maxMissProbe, other.maxMissProbe);
+        }
+
+        /**
+         * Count a probe of one slot array.
+         *
+         * @param found  whether the probe found its value
+         * @param probes number of slots examined
+         */
+        @Override
+        void probed(boolean found, int probes) {
+            if (found) {
+                hits++;
+                hitProbes += probes;
+                maxHitProbe = Math.max(maxHitProbe, probes);
+            } else {
+                misses++;
+                missProbes += probes;
+                maxMissProbe = Math.max(maxMissProbe, probes);
+            }
+        }
+
+        /**
+         * Read the clock before resizing or migrating.
+         *
+         * @return current time in nanoseconds
+         */
+        @Override
+        long rehashStarted() {
+            return System.nanoTime();
+        }
+
+        /**
+         * Add the time since start, and count the resize if an array was allocated.
+         *
+         * @param start  value returned by rehashStarted
+         * @param length length of the slot array allocated, or 0 for a migration step
+         */
+        @Override
+        void rehashEnded(long start, int length) {
+            rehashNanos += System.nanoTime() - start;
+            if (length > 0) {
+                rehashes++;
+                bytesAllocated += (long) length * (REFERENCE_BYTES + Integer.BYTES);
+            }
+        }
+    }
+}
@@ -4,6 +4,14 @@
 
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.ConcurrentModificationException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
 import static org.junit.Assert.*;
 import static org.junit.Assert.assertTrue;
 
@@ -19,7 +27,7 @@ public class HashTableTest {
     @Test
     public void testConstructor() {
         assertEquals(0, hashTable.size());
-        assertEquals(12, hashTable.capacity());
+        assertEquals(16, hashTable.capacity());
     }
 
     @Test (expected = IllegalArgumentException.class)
@@ -40,7 +48,7 @@ public class HashTableTest {
 
         assertTrue(hashTable.insert(20));
         assertEquals(20, hashTable.size());
-        assertEquals(48, hashTable.capacity());
+        assertEquals(32, hashTable.capacity());
     }
 
     @Test
@@ -56,6 +64,631 @@ public class HashTableTest {
         }
     }
 
+    @Test
+    public void testCollidingValues() {
+        // Multiples of the capacity all share a home slot and form one probe cluster
+        for (int i = 0; i < 8; i++) {
+            assertTrue(hashTable.insert(i * 12));
+            assertTrue(hashTable.insert(i * 12 + 1));
+        }
+        assertEquals(16, hashTable.size());
+
+        // Deleting from the middle of a cluster must not hide the values after it
+        for (int i = 0; i < 8; i += 2) {
+            assertTrue(hashTable.delete(i * 12));
+        }
+        for (int i = 0; i < 8; i++) {
+            assertEquals(i % 2 == 1, hashTable.lookup(i * 12));
+            assertTrue(hashTable.lookup(i * 12 + 1));
+        }
+        assertEquals(12, hashTable.size());
+    }
+
+    @Test
+    public void testInsertIfAbsentAndRemoveAndGet() {
+        String first = new String("key");
+        String second = new String("key");
+        HashTable<String> strings = new HashTable<>(10);
+
+        assertNull(strings.insertIfAbsent(first));
+        assertSame(first, strings.insertIfAbsent(second));
+        assertEquals(1, strings.size());
+
+        assertSame(first, strings.removeAndGet(second));
+        assertNull(strings.removeAndGet(second));
+        assertEquals(0, strings.size());
+    }
+
+    @Test
+    public void testIncrementalRehash() {
+        HashTable<Integer> incremental = new HashTable<>(10, true);
+
+        // Every value must stay visible while old slots are still being migrated
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(incremental.insert(i));
+            assertFalse(incremental.insert(i));
+            for (int j = Math.max(0, i - 50); j <= i; j++) {
+                assertTrue(incremental.lookup(j));
+            }
+        }
+        assertEquals(1000, incremental.size());
+        assertEquals(2048, incremental.capacity());
+
+        for (int i = 0; i < 1000; i += 3) {
+            assertTrue(incremental.delete(i));
+            assertFalse(incremental.delete(i));
+        }
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i % 3 != 0, incremental.lookup(i));
+        }
+        assertEquals(666, incremental.size());
+    }
+
+    @Test
+    public void testHashStrategy() {
+        HashTable<String> caseless = new HashTable<>(10, new HashStrategy<String>() {
+            @Override
+            public int hash(String value) {
+                return value.toLowerCase().hashCode();
+            }
+
+            @Override
+            public boolean equals(String a, String b) {
+                return a.equalsIgnoreCase(b);
+            }
+        });
+
+        assertTrue(caseless.insert("Arjun"));
+        assertFalse(caseless.insert("ARJUN"));
+        assertTrue(caseless.lookup("arjun"));
+        assertTrue(caseless.delete("aRJUN"));
+        assertEquals(0, caseless.size());
+    }
+
+    @Test
+    public void testWeakHashCodes() {
+        // Hash codes that only differ above the mask would all share one slot without mixing
+        HashTable<Integer> weak = new HashTable<>(1 << 12, new DefaultHashStrategy<>(42));
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(weak.insert(i << 16));
+        }
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(weak.lookup(i << 16));
+            assertFalse(weak.lookup((i << 16) + 1));
+        }
+    }
+
+    @Test
+    public void testBulkOperations() {
+        List<Integer> values = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            values.add(i);
+        }
+
+        // The table grows once to fit every value, duplicates are not counted
+        assertEquals(1000, hashTable.insertAll(values));
+        assertEquals(2048, hashTable.capacity());
+        assertEquals(0, hashTable.insertAll(new Integer[] {0, 500, 999}));
+        assertEquals(1000, hashTable.size());
+
+        Integer[] probes = {5, 1000, 999, -1, 0};
+        BitSet found = hashTable.lookupAll(probes);
+        assertEquals(3, found.cardinality());
+        assertTrue(found.get(0) && found.get(2) && found.get(4));
+
+        assertEquals(500, hashTable.deleteAll(values.subList(0, 500)));
+        assertEquals(0, hashTable.deleteAll(values.subList(0, 500)));
+        assertEquals(500, hashTable.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i >= 500, hashTable.lookup(i));
+        }
+    }
+
+    @Test
+    public void testBulkInsertDuringIncrementalRehash() {
+        HashTable<Integer> incremental = new HashTable<>(10, true);
+        for (int i = 0; i < 12; i++) {
+            incremental.insert(i);
+        }
+
+        Integer[] values = new Integer[100];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i;
+        }
+        assertEquals(88, incremental.insertAll(values));
+        assertEquals(100, incremental.size());
+        assertEquals(100, incremental.lookupAll(values).cardinality());
+    }
+
+    @Test
+    public void testInsertAllThrowsNPE() {
+        try {
+            hashTable.insertAll(Arrays.asList(1, null, 3));
+            fail("Exception not thrown.");
+        } catch (NullPointerException e) {
+            // Nothing is inserted when any value is null
+            assertEquals(0, hashTable.size());
+            assertEquals(16, hashTable.capacity());
+        }
+    }
+
+    @Test
+    public void testIteration() {
+        Set<Integer> seen = new HashSet<>();
+        for (int value : hashTable) {
+            assertTrue(seen.add(value));
+        }
+        assertTrue(seen.isEmpty());
+
+        for (int i = 0; i < 1000; i++) {
+            hashTable.insert(i);
+        }
+        for (int value : hashTable) {
+            assertTrue(seen.add(value));
+        }
+        assertEquals(1000, seen.size());
+        assertEquals(1000, hashTable.spliterator().getExactSizeIfKnown());
+    }
+
+    @Test
+    public void testStreams() {
+        HashTable<Integer> incremental = new HashTable<>(10, true);
+        for (int i = 0; i < 10000; i++) {
+            incremental.insert(i);
+        }
+
+        // Values still waiting in the old table of an incremental rehash are included
+        long expected = (long) 9999 * 10000 / 2;
+        assertEquals(10000, incremental.stream().count());
+        assertEquals(expected, incremental.stream().mapToLong(Integer::longValue).sum());
+        assertEquals(expected, incremental.parallelStream().mapToLong(Integer::longValue).sum());
+        assertEquals(10000, incremental.parallelStream().distinct().count());
+    }
+
+    @Test
+    public void testIterationOverTreeBins() {
+        HashTable<Colliding> colliding = new HashTable<>(10);
+        for (int i = 0; i < 100; i++) {
+            colliding.insert(new Colliding(i));
+        }
+        assertEquals(100, colliding.parallelStream().map(c -> c.id).distinct().count());
+    }
+
+    @Test (expected = ConcurrentModificationException.class)
+    public void testIteratorFailsFast() {
+        for (int i = 0; i < 20; i++) {
+            hashTable.insert(i);
+        }
+        for (int value : hashTable) {
+            hashTable.delete(value);
+        }
+        fail("Exception not thrown.");
+    }
+
+    @Test
+    public void testShrinkOnDelete() {
+        for (int i = 0; i < 1000; i++) {
+            hashTable.insert(i);
+        }
+        assertEquals(2048, hashTable.capacity());
+
+        // Halves each time the load factor falls below ⅙, but not below the initial capacity
+        for (int i = 0; i < 658; i++) {
+            hashTable.delete(i);
+        }
+        assertEquals(2048, hashTable.capacity());
+        hashTable.delete(658);
+        assertEquals(1024, hashTable.capacity());
+        for (int i = 659; i < 1000; i++) {
+            assertTrue(hashTable.lookup(i));
+            hashTable.delete(i);
+        }
+        assertEquals(0, hashTable.size());
+        assertEquals(16, hashTable.capacity());
+    }
+
+    @Test
+    public void testIncrementalShrink() {
+        HashTable<Integer> incremental = new HashTable<>(10, true);
+        for (int i = 0; i < 5000; i++) {
+            incremental.insert(i);
+        }
+        for (int i = 0; i < 4995; i++) {
+            assertTrue(incremental.delete(i));
+            assertTrue(incremental.lookup(i + 1));
+        }
+        assertEquals(5, incremental.size());
+        assertEquals(16, incremental.capacity());
+    }
+
+    @Test
+    public void testSetMinLoadFactor() {
+        hashTable.setMinLoadFactor(0);
+        for (int i = 0; i < 1000; i++) {
+            hashTable.insert(i);
+        }
+        for (int i = 0; i < 1000; i++) {
+            hashTable.delete(i);
+        }
+        assertEquals(2048, hashTable.capacity());
+
+        // trimToSize shrinks even when automatic shrinking is off
+        hashTable.insert(1);
+        hashTable.trimToSize();
+        assertEquals(16, hashTable.capacity());
+        assertTrue(hashTable.lookup(1));
+    }
+
+    @Test
+    public void testTrimToSize() {
+        HashTable<Integer> large = new HashTable<>(4096);
+        for (int i = 0; i < 100; i++) {
+            large.insert(i);
+        }
+        large.trimToSize();
+        assertEquals(256, large.capacity());
+        for (int i = 0; i < 100; i++) {
+            assertTrue(large.lookup(i));
+        }
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void testSetMinLoadFactorThrowsIAE() {
+        hashTable.setMinLoadFactor(0.4);
+        fail("Exception not thrown.");
+    }
+
+    @Test
+    public void testStats() {
+        // Counters stay at zero until stats are enabled
+        hashTable.insert(1);
+        HashTableStats stats = hashTable.stats();
+        assertEquals(1, stats.size());
+        assertEquals(1, stats.occupiedSlots());
+        assertEquals(0, stats.hits() + stats.misses());
+
+        hashTable.enableStats();
+        for (int i = 2; i <= 100; i++) {
+            hashTable.insert(i);
+        }
+        for (int i = 1; i <= 200; i++) {
+            hashTable.lookup(i);
+        }
+        stats = hashTable.stats();
+        assertEquals(100, stats.size());
+        assertEquals(256, stats.capacity());
+        assertEquals(100, stats.occupiedSlots());
+        assertEquals(100, stats.hits());
+        assertEquals(199, stats.misses());
+        assertEquals(4, stats.rehashes());
+        assertEquals((32 + 64 + 128 + 256) * 8, stats.bytesAllocated());
+        assertTrue(stats.averageHitProbe() >= 1 && stats.maxHitProbe() >= 1);
+
+        long histogramTotal = 0;
+        for (long count : stats.probeLengthHistogram()) {
+            histogramTotal += count;
+        }
+        assertEquals(100, histogramTotal);
+
+        hashTable.disableStats();
+        hashTable.lookup(1);
+        assertEquals(0, hashTable.stats().hits());
+    }
+
+    @Test
+    public void testStatsCountTreeBins() {
+        HashTable<Colliding> colliding = new HashTable<>(10);
+        for (int i = 0; i < 20; i++) {
+            colliding.insert(new Colliding(i));
+        }
+        HashTableStats stats = colliding.stats();
+        assertEquals(1, stats.treeBins());
+        assertTrue(stats.occupiedSlots() < 20);
+
+        // Every value in the bin is found by the probe that reaches the bin
+        long histogramTotal = 0;
+        for (long count : stats.probeLengthHistogram()) {
+            histogramTotal += count;
+        }
+        assertEquals(20, histogramTotal);
+    }
+
+    @Test
+    public void testFindAndRemoveByPredicate() {
+        DefaultHashStrategy<Object> strategy = new DefaultHashStrategy<>(42);
+        HashTable<Integer> numbers = new HashTable<>(10, true, strategy);
+        for (int i = 0; i < 100; i++) {
+            numbers.insert(i);
+        }
+        assertEquals(Integer.valueOf(42), numbers.find(strategy.mix(42), v -> v == 42));
+        assertNull(numbers.find(strategy.mix(42), v -> v == 43));
+        assertNull(numbers.find(strategy.mix(100), v -> v == 100));
+
+        assertEquals(Integer.valueOf(42), numbers.remove(strategy.mix(42), v -> v == 42));
+        assertNull(numbers.remove(strategy.mix(42), v -> v == 42));
+        assertFalse(numbers.lookup(42));
+        assertEquals(99, numbers.size());
+
+        // Values held by a TreeBin are found and removed too
+        HashTable<Colliding> colliding = new HashTable<>(10, strategy);
+        for (int i = 0; i < 20; i++) {
+            colliding.insert(new Colliding(i));
+        }
+        assertEquals(1, colliding.stats().treeBins());
+        assertEquals(5, colliding.find(strategy.mix(7), v -> v.id == 5).id);
+        assertEquals(5, colliding.remove(strategy.mix(7), v -> v.id == 5).id);
+        assertNull(colliding.find(strategy.mix(7), v -> v.id == 5));
+        assertEquals(19, colliding.size());
+    }
+
+    @Test (expected = NullPointerException.class)
+    public void testFindThrowsNPE() {
+        hashTable.find(0, null);
+        fail("Exception not thrown");
+    }
+
+    @Test
+    public void testSetOperations() {
+        HashTable<Integer> evens = new HashTable<>(10);
+        HashTable<Integer> triples = new HashTable<>(10, true);
+        for (int i = 0; i < 600; i += 2) {
+            evens.insert(i);
+        }
+        for (int i = 0; i < 300; i += 3) {
+            triples.insert(i);
+        }
+
+        HashTable<Integer> union = evens.union(triples);
+        HashTable<Integer> intersection = evens.intersect(triples);
+        HashTable<Integer> difference = evens.difference(triples);
+        assertEquals(350, union.size());
+        assertEquals(50, intersection.size());
+        assertEquals(250, difference.size());
+        for (int i = 0; i < 600; i++) {
+            assertEquals(i % 2 == 0 || (i < 300 && i % 3 == 0), union.lookup(i));
+            assertEquals(i % 6 == 0 && i < 300, intersection.lookup(i));
+            assertEquals(i % 2 == 0 && (i >= 300 || i % 3 != 0), difference.lookup(i));
+        }
+
+        // Neither operand changes
+        assertEquals(300, evens.size());
+        assertEquals(100, triples.size());
+        assertEquals(intersection.size(), triples.intersect(evens).size());
+    }
+
+    @Test
+    public void testRetainAll() {
+        HashTable<Integer> small = new HashTable<>(10);
+        HashTable<Integer> large = new HashTable<>(10);
+        for (int i = 0; i < 20; i++) {
+            small.insert(i * 100);
+        }
+        for (int i = 0; i < 1000; i++) {
+            large.insert(i);
+        }
+
+        // Probing the smaller table from this one
+        assertTrue(small.retainAll(large));
+        assertFalse(small.retainAll(large));
+        assertEquals(10, small.size());
+
+        // Rebuilding this table from the smaller one
+        assertTrue(large.retainAll(small));
+        assertFalse(large.retainAll(small));
+        assertEquals(10, large.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i % 100 == 0, large.lookup(i));
+        }
+
+        // The instances stored in this table are the ones kept
+        HashTable<String> words = new HashTable<>(10);
+        String stored = new String("kept");
+        words.insert(stored);
+        words.insert("dropped");
+        HashTable<String> keep = new HashTable<>(10);
+        keep.insert(new String("kept"));
+        assertTrue(words.retainAll(keep));
+        assertSame(stored, words.iterator().next());
+        assertSame(stored, words.intersect(keep).iterator().next());
+    }
+
+    @Test
+    public void testParallelSetOperations() {
+        HashTable<Integer> first = new HashTable<>(10, true);
+        HashTable<Integer> second = new HashTable<>(10);
+        for (int i = 0; i < 100000; i++) {
+            first.insert(i);
+            second.insert(i + 50000);
+        }
+
+        HashTable<Integer> intersection = first.intersect(second, true);
+        assertEquals(50000, intersection.size());
+        assertEquals(150000, first.union(second, true).size());
+        HashTable<Integer> difference = first.difference(second, true);
+        assertEquals(50000, difference.size());
+        for (int i = 0; i < 150000; i += 7) {
+            assertEquals(i >= 50000 && i < 100000, intersection.lookup(i));
+            assertEquals(i < 50000, difference.lookup(i));
+        }
+
+        assertTrue(first.retainAll(second, true));
+        assertEquals(50000, first.size());
+        assertEquals(intersection.size(), first.intersect(intersection).size());
+    }
+
+    @Test
+    public void testParallelSetOperationStats() {
+        HashTable<Integer> first = new HashTable<>(10);
+        HashTable<Integer> second = new HashTable<>(10);
+        for (int i = 0; i < 100000; i++) {
+            first.insert(i);
+            second.insert(i + 50000);
+        }
+
+        // Every probe made by the fork-join threads is counted exactly once
+        second.enableStats();
+        assertEquals(50000, first.difference(second, true).size());
+        HashTableStats stats = second.stats();
+        assertEquals(50000, stats.hits());
+        assertEquals(50000, stats.misses());
+    }
+
+    @Test (expected = NullPointerException.class)
+    public void testIntersectThrowsNPE() {
+        hashTable.intersect(null);
+        fail("Exception not thrown");
+    }
+
+    @Test
+    public void testSameHashComparableValues() {
+        testSameHashValues(true);
+    }
+
+    @Test
+    public void testSameHashUnorderedValues() {
+        testSameHashValues(false);
+    }
+
+    @Test (timeout = 5000)
+    public void testSameHashFlood() {
+        // Rebuilding the bin every few inserts would make this quadratic, taking many seconds
+        HashTable<Colliding> table = new HashTable<>(10);
+        for (int i = 0; i < 65536; i++) {
+            assertTrue(table.insert(new Colliding(i)));
+        }
+        assertEquals(65536, table.size());
+        assertEquals(1, table.stats().treeBins());
+        for (int i = 0; i < 65536; i += 7) {
+            assertTrue(table.lookup(new Colliding(i)));
+        }
+        assertFalse(table.lookup(new Colliding(65536)));
+    }
+
+    @Test
+    public void testCompareToInconsistentWithEquals() {
+        // Values with one id but different scales compare as 0 without being equal
+        HashTable<Scaled> table = new HashTable<>(10);
+        for (int i = 0; i < 20; i++) {
+            assertTrue(table.insert(new Scaled(i, 0)));
+        }
+        assertEquals(1, table.stats().treeBins());
+        assertFalse(table.lookup(new Scaled(5, 1)));
+        assertTrue(table.insert(new Scaled(5, 1)));
+        assertEquals(21, table.size());
+
+        assertTrue(table.lookup(new Scaled(5, 0)));
+        assertTrue(table.lookup(new Scaled(5, 1)));
+        assertTrue(table.delete(new Scaled(5, 0)));
+        assertFalse(table.lookup(new Scaled(5, 0)));
+        assertTrue(table.lookup(new Scaled(5, 1)));
+    }
+
+    /**
+     * Insert and delete many values that all share one hash code, enough to go through
+     * treeifying and untreeifying.
+     *
+     * @param comparable whether the values are Comparable
+     */
+    private void testSameHashValues(boolean comparable) {
+        HashTable<Object> table = new HashTable<>(10);
+        for (int i = 0; i < 100; i++) {
+            assertTrue(table.insert(comparable ? new Colliding(i) : new UnorderedColliding(i)));
+            assertTrue(table.insert(i));
+        }
+        assertEquals(200, table.size());
+
+        for (int i = 0; i < 100; i++) {
+            assertFalse(table.insert(comparable ? new Colliding(i) : new UnorderedColliding(i)));
+            assertTrue(table.lookup(comparable ? new Colliding(i) : new UnorderedColliding(i)));
+        }
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue(table.delete(comparable ? new Colliding(i) : new UnorderedColliding(i)));
+            for (int j = 0; j < 100; j++) {
+                assertEquals(j > i, table.lookup(
+                        comparable ? new Colliding(j) : new UnorderedColliding(j)));
+            }
+        }
+        assertEquals(100, table.size());
+    }
+
+    /**
+     * Comparable value whose hash code is always the same.
+     */
+    private static class Colliding implements Comparable<Colliding> {
+        final int id;
+
+        Colliding(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public int compareTo(Colliding other) {
+            return Integer.compare(id, other.id);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof Colliding && ((Colliding) obj).id == id;
+        }
+
+        @Override
+        public int hashCode() {
+            return 7;
+        }
+    }
+
+    /**
+     * Comparable value whose hash code is always the same and whose order ignores its scale,
+     * like BigDecimal.
+     */
+    private static class Scaled implements Comparable<Scaled> {
+        final int id;
+        final int scale;
+
+        Scaled(int id, int scale) {
+            this.id = id;
+            this.scale = scale;
+        }
+
+        @Override
+        public int compareTo(Scaled other) {
+            return Integer.compare(id, other.id);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof Scaled && ((Scaled) obj).id == id
+                    && ((Scaled) obj).scale == scale;
+        }
+
+        @Override
+        public int hashCode() {
+            return 7;
+        }
+    }
+
+    /**
+     * Value without an ordering whose hash code is always the same.
+     */
+    private static class UnorderedColliding {
+        final int id;
+
+        UnorderedColliding(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof UnorderedColliding && ((UnorderedColliding) obj).id == id;
+        }
+
+        @Override
+        public int hashCode() {
+            return 7;
+        }
+    }
+
     @Test (expected = NullPointerException.class)
     public void testInsertThrowsNPE() {
         hashTable.insert(null);
@@ -0,0 +1,68 @@
+/*
+ * Name: Arjun Sawhney
+ */
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * IntHashTable Tester Class
+ *
+ * @author Arjun Sawhney
+ * @since 06/05/2020
+ */
+public class IntHashTableTest {
+    IntHashTable hashTable = new IntHashTable(12);
+
+    @Test
+    public void testConstructor() {
+        assertEquals(0, hashTable.size());
+        assertEquals(16, hashTable.capacity());
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void testConstructorThrowsIAE() {
+        hashTable = new IntHashTable(8);
+        fail("Exception not thrown.");
+    }
+
+    @Test
+    public void testInsert() {
+        for (int i = -10; i < 10; i++) {
+            assertFalse(hashTable.lookup(i));
+            assertTrue(hashTable.insert(i));
+            assertTrue(hashTable.lookup(i));
+            assertFalse(hashTable.insert(i));
+            assertEquals(i + 11, hashTable.size());
+        }
+        assertEquals(32, hashTable.capacity());
+    }
+
+    @Test
+    public void testDelete() {
+        testInsert();
+
+        for (int i = -10; i < 10; i++) {
+            assertTrue(hashTable.delete(i));
+            assertFalse(hashTable.delete(i));
+            assertFalse(hashTable.lookup(i));
+            assertEquals(9 - i, hashTable.size());
+        }
+    }
+
+    @Test
+    public void testCollidingValues() {
+        // Multiples of a large power of two collide heavily once spread into a small table
+        for (int i = 0; i < 200; i++) {
+            assertTrue(hashTable.insert(i << 20));
+        }
+        for (int i = 0; i < 200; i += 2) {
+            assertTrue(hashTable.delete(i << 20));
+        }
+        for (int i = 0; i < 200; i++) {
+            assertEquals(i % 2 == 1, hashTable.lookup(i << 20));
+        }
+        assertEquals(100, hashTable.size());
+    }
+}
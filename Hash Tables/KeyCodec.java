@@ -0,0 +1,42 @@
+/*
+ * Name: Arjun Sawhney
+ */
+
+import java.nio.ByteBuffer;
+
+/**
+ * Converts keys to and from a fixed number of bytes so they can be stored outside the Java
+ * heap. Two keys are considered equal exactly when their encodings are equal.
+ *
+ * @param <K> Generic type of key
+ */
+public interface KeyCodec<K> {
+
+    /**
+     * Returns the number of bytes every encoded key occupies.
+     *
+     * @return encoded width in bytes
+     */
+    int width();
+
+    /**
+     * Writes the key into buf starting at offset, using exactly width() bytes. Must not change
+     * the position or limit of buf.
+     *
+     * @param key    key to encode
+     * @param buf    destination buffer
+     * @param offset absolute index of the first byte to write
+     * @throws IllegalArgumentException if the key cannot be encoded in width() bytes
+     */
+    void encode(K key, ByteBuffer buf, int offset);
+
+    /**
+     * Reads a key back from the width() bytes of buf starting at offset. Must not change the
+     * position or limit of buf.
+     *
+     * @param buf    source buffer
+     * @param offset absolute index of the first byte to read
+     * @return decoded key
+     */
+    K decode(ByteBuffer buf, int offset);
+}
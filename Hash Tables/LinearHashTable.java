@@ -0,0 +1,568 @@
+/*
+ * Name: Arjun Sawhney
+ */
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * HashTable for key sets larger than the heap. Buckets are fixed-size pages of a file, and only
+ * a bounded pool of recently used pages is kept in memory. The table grows by linear hashing:
+ * whenever the load factor is exceeded, the single bucket at the split pointer is split in
+ * two, so growth never copies the whole table and every operation reads O(1) pages amortized.
+ *
+ * Page layout: 4 byte entry count, 4 byte number of the next overflow page (0 if none, page 0
+ * is always a primary page), then the entries. Each entry is a 4 byte hash tag followed by the
+ * key in its fixed-width KeyCodec encoding.
+ *
+ * The file is scratch space owned by the table and is deleted when the table is closed.
+ *
+ * @param <K> Generic type of key
+ * @author Arjun Sawhney
+ * @since 06/05/2020
+ */
+public class LinearHashTable<K> implements HashTableInterface<K>, AutoCloseable {
+    // constants
+    public static final int PAGE_SIZE = 4096; // bytes per page
+    public static final int MIN_CACHED_PAGES = 4; // smallest page pool an operation needs
+    public static final double MAX_LOAD_FACTOR = 0.75; // load factor that triggers a split
+    private static final int HEADER_BYTES = 2 * Integer.BYTES; // count and overflow page
+    private static final int OVERFLOW_OFFSET = Integer.BYTES; // offset of the overflow page
+    private static final int TAG_BYTES = Integer.BYTES; // bytes of the hash tag of an entry
+    private static final int NO_PAGE = 0; // overflow page number meaning end of chain
+
+    // instance variables
+    private final KeyCodec<K> codec; // key encoding
+    private final int keyWidth; // bytes per encoded key
+    private final int entryWidth; // bytes per entry
+    private final int entriesPerPage; // entries that fit in one page
+    private final ByteBuffer probe; // reusable buffer holding the encoding of the current key
+    private final FileChannel channel; // page file
+    private final PagePool pool; // recently used pages
+    private int[] bucketPages = new int[1]; // primary page of every bucket
+    private int level; // number of times the bucket count has doubled
+    private int split; // next bucket to split in this round
+    private int nPages = 1; // pages in the file
+    private int[] freePages = new int[0]; // overflow pages released by splits and deletes
+    private int nFreePages; // number of free pages
+    private long nElems; // number of keys stored
+    private boolean closed; // whether close has been called
+
+    /**
+     * Constructor for a linear hash table. The file is created, or truncated if it exists.
+     *
+     * @param file        page file
+     * @param codec       fixed-width key encoding
+     * @param cachedPages maximum number of pages kept in memory
+     * @throws IllegalArgumentException if cachedPages is less than MIN_CACHED_PAGES or a key
+     *                                  does not fit in a page
+     * @throws NullPointerException     if file or codec is null
+     * @throws UncheckedIOException     if the file cannot be opened
+     */
+    public LinearHashTable(Path file, KeyCodec<K> codec, int cachedPages) {
+        if (file == null || codec == null) {
+            // throws NullPointerException if the file or codec is null
+            throw new NullPointerException();
+        } else if (cachedPages < MIN_CACHED_PAGES
+                || TAG_BYTES + codec.width() > PAGE_SIZE - HEADER_BYTES) {
+            // throws IllegalArgumentException if an operation could not keep its pages cached
+            throw new IllegalArgumentException();
+        }
+
+        this.codec = codec;
+        keyWidth = codec.width();
+        entryWidth = TAG_BYTES + keyWidth;
+        entriesPerPage = (PAGE_SIZE - HEADER_BYTES) / entryWidth;
+        probe = ByteBuffer.allocate(keyWidth).order(ByteOrder.LITTLE_ENDIAN);
+        pool = new PagePool(cachedPages);
+        try {
+            channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE, StandardOpenOption.DELETE_ON_CLOSE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        // Bucket 0 starts out with page 0 as its empty primary page
+        newPage(0);
+    }
+
+    /**
+     * Insert the key into the hash table.
+     *
+     * @param key key to insert
+     * @return true if the key was inserted, false if the key was already present
+     * @throws NullPointerException  if the key is null
+     * @throws IllegalStateException if the table has been closed
+     * @throws UncheckedIOException  if a page cannot be read or written
+     */
+    @Override
+    public boolean insert(K key) {
+        int hash = encode(key);
+        int bucket = bucketOf(hash);
+        if (find(bucket, hash) >= 0) {
+            // False if the key already exists in the hash table
+            return false;
+        }
+
+        append(bucket, hash, probe, 0);
+        nElems++;
+
+        if ((double) nElems / capacity() > MAX_LOAD_FACTOR) {
+            // Grow by splitting one bucket, never the whole table
+            splitBucket();
+        }
+        return true;
+    }
+
+    /**
+     * Delete the given key from the hash table.
+     *
+     * @param key key to delete
+     * @return true if the key was deleted, false if the key was not found
+     * @throws NullPointerException  if the key is null
+     * @throws IllegalStateException if the table has been closed
+     * @throws UncheckedIOException  if a page cannot be read or written
+     */
+    @Override
+    public boolean delete(K key) {
+        int hash = encode(key);
+        int bucket = bucketOf(hash);
+        long found = find(bucket, hash);
+        if (found < 0) {
+            // False if the key does not exist in the hash table
+            return false;
+        }
+
+        // Find the last entry of the chain and the page before the last page, if any
+        int previous = -1;
+        int last = bucketPages[bucket];
+        for (int next = overflowOf(last); next != NO_PAGE; next = overflowOf(next)) {
+            previous = last;
+            last = next;
+        }
+
+        // Move the last entry into the hole so every page stays packed from the front
+        ByteBuffer lastData = pool.get(last);
+        int lastCount = lastData.getInt(0);
+        int lastOffset = HEADER_BYTES + (lastCount - 1) * entryWidth;
+        ByteBuffer foundData = pool.get((int) (found >>> Integer.SIZE));
+        int foundOffset = HEADER_BYTES + (int) found * entryWidth;
+        foundData.put(foundOffset, lastData, lastOffset, entryWidth);
+        pool.markDirty((int) (found >>> Integer.SIZE));
+
+        lastData = pool.get(last);
+        lastData.putInt(0, lastCount - 1);
+        pool.markDirty(last);
+        if (lastCount == 1 && previous >= 0) {
+            // An emptied overflow page is unlinked and reused later
+            pool.get(previous).putInt(OVERFLOW_OFFSET, NO_PAGE);
+            pool.markDirty(previous);
+            freePage(last);
+        }
+
+        nElems--;
+        return true;
+    }
+
+    /**
+     * Check if the given key is present in the hash table.
+     *
+     * @param key key to look up
+     * @return true if the key was found, false if the key was not found
+     * @throws NullPointerException  if the key is null
+     * @throws IllegalStateException if the table has been closed
+     * @throws UncheckedIOException  if a page cannot be read
+     */
+    @Override
+    public boolean lookup(K key) {
+        int hash = encode(key);
+        return find(bucketOf(hash), hash) >= 0;
+    }
+
+    /**
+     * Get the total number of keys stored in the hash table. Saturates at Integer.MAX_VALUE,
+     * use sizeAsLong for larger tables.
+     *
+     * @return total number of keys
+     */
+    @Override
+    public int size() {
+        return (int) Math.min(nElems, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Get the total number of keys stored in the hash table.
+     *
+     * @return total number of keys
+     */
+    public long sizeAsLong() {
+        return nElems;
+    }
+
+    /**
+     * Get the capacity of the hash table, the number of entries the primary pages of all
+     * buckets can hold.
+     *
+     * @return capacity
+     */
+    @Override
+    public int capacity() {
+        return (int) Math.min((long) buckets() * entriesPerPage, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Get the number of pages in the file, including free overflow pages.
+     *
+     * @return number of pages
+     */
+    public int pages() {
+        return nPages;
+    }
+
+    /**
+     * Close the page file and delete it. Every later operation other than the size and
+     * capacity queries throws IllegalStateException. Closing twice has no effect.
+     *
+     * @throws UncheckedIOException if the file cannot be closed
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        pool.clear();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Number of buckets, which grows by one with every split.
+     *
+     * @return number of buckets
+     */
+    private int buckets() {
+        return (1 << level) + split;
+    }
+
+    /**
+     * Bucket of a hash. Buckets before the split pointer have already been split this round,
+     * so they are addressed with one more bit of the hash.
+     *
+     * @param hash tag of the key
+     * @return bucket index
+     */
+    private int bucketOf(int hash) {
+        int bucket = hash & ((1 << level) - 1);
+        if (bucket < split) {
+            bucket = hash & ((1 << (level + 1)) - 1);
+        }
+        return bucket;
+    }
+
+    /**
+     * Encode the key into the probe buffer and hash its bytes.
+     *
+     * @param key key to encode
+     * @return tag of the key
+     * @throws NullPointerException  if the key is null
+     * @throws IllegalStateException if the table has been closed
+     */
+    private int encode(K key) {
+        if (key == null) {
+            // throws NullPointerException if the key is null
+            throw new NullPointerException();
+        } else if (closed) {
+            // throws IllegalStateException if the table has been closed
+            throw new IllegalStateException();
+        }
+
+        codec.encode(key, probe, 0);
+        return OffHeapHashTable.hashBytes(probe, keyWidth);
+    }
+
+    /**
+     * Find the key in the probe buffer in the chain of a bucket.
+     *
+     * @param bucket bucket to search
+     * @param hash   tag of the key
+     * @return page number in the high 32 bits and entry index in the low 32 bits, or -1 if
+     *         the key is not stored
+     */
+    private long find(int bucket, int hash) {
+        for (int page = bucketPages[bucket]; ; ) {
+            ByteBuffer data = pool.get(page);
+            int count = data.getInt(0);
+            for (int i = 0; i < count; i++) {
+                int offset = HEADER_BYTES + i * entryWidth;
+                if (data.getInt(offset) == hash && keyEquals(data, offset + TAG_BYTES)) {
+                    return (long) page << Integer.SIZE | i;
+                }
+            }
+            page = data.getInt(OVERFLOW_OFFSET);
+            if (page == NO_PAGE) {
+                return -1;
+            }
+        }
+    }
+
+    /**
+     * Compare the key stored at offset with the key in the probe buffer.
+     *
+     * @param data   page holding the key
+     * @param offset offset of the stored key in the page
+     * @return true if the encodings are equal
+     */
+    private boolean keyEquals(ByteBuffer data, int offset) {
+        int i = 0;
+        for (; i + Long.BYTES <= keyWidth; i += Long.BYTES) {
+            if (data.getLong(offset + i) != probe.getLong(i)) {
+                return false;
+            }
+        }
+        for (; i < keyWidth; i++) {
+            if (data.get(offset + i) != probe.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Add an entry to the last page of a bucket's chain, linking a new overflow page if the
+     * last page is full.
+     *
+     * @param bucket bucket to add to
+     * @param hash   tag of the key
+     * @param key    buffer holding the encoded key
+     * @param offset offset of the key in the buffer
+     */
+    private void append(int bucket, int hash, ByteBuffer key, int offset) {
+        int page = bucketPages[bucket];
+        for (int next = overflowOf(page); next != NO_PAGE; next = overflowOf(next)) {
+            page = next;
+        }
+
+        if (pool.get(page).getInt(0) == entriesPerPage) {
+            int overflow = allocatePage();
+            pool.get(page).putInt(OVERFLOW_OFFSET, overflow);
+            pool.markDirty(page);
+            page = overflow;
+        }
+
+        ByteBuffer data = pool.get(page);
+        int count = data.getInt(0);
+        int entry = HEADER_BYTES + count * entryWidth;
+        data.putInt(entry, hash);
+        data.put(entry + TAG_BYTES, key, offset, keyWidth);
+        data.putInt(0, count + 1);
+        pool.markDirty(page);
+    }
+
+    /**
+     * Split the bucket at the split pointer. Its entries are read out, its overflow pages are
+     * released, and each entry is appended to either the same bucket or the new bucket at the
+     * end, depending on the next bit of its hash.
+     */
+    private void splitBucket() {
+        int bucket = split;
+        int image = bucket + (1 << level);
+
+        // Copy the whole chain out before rewriting it
+        ByteBuffer entries = ByteBuffer.allocate(0).order(ByteOrder.LITTLE_ENDIAN);
+        int page = bucketPages[bucket];
+        do {
+            ByteBuffer data = pool.get(page);
+            int bytes = data.getInt(0) * entryWidth;
+            ByteBuffer grown = ByteBuffer.allocate(entries.capacity() + bytes)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            grown.put(0, entries, 0, entries.capacity());
+            grown.put(entries.capacity(), data, HEADER_BYTES, bytes);
+            entries = grown;
+
+            int next = data.getInt(OVERFLOW_OFFSET);
+            if (page != bucketPages[bucket]) {
+                freePage(page);
+            }
+            page = next;
+        } while (page != NO_PAGE);
+        newPage(bucketPages[bucket]);
+
+        if (image == bucketPages.length) {
+            bucketPages = Arrays.copyOf(bucketPages, bucketPages.length * 2);
+        }
+        bucketPages[image] = allocatePage();
+
+        // Advance the split pointer first so bucketOf sends entries to the split buckets
+        split++;
+        if (split == 1 << level) {
+            level++;
+            split = 0;
+        }
+        for (int offset = 0; offset < entries.capacity(); offset += entryWidth) {
+            int hash = entries.getInt(offset);
+            append(bucketOf(hash), hash, entries, offset + TAG_BYTES);
+        }
+    }
+
+    /**
+     * Number of the overflow page following a page.
+     *
+     * @param page page number
+     * @return next page of the chain, or NO_PAGE
+     */
+    private int overflowOf(int page) {
+        return pool.get(page).getInt(OVERFLOW_OFFSET);
+    }
+
+    /**
+     * Take a page from the free list, or add one to the end of the file, and empty it.
+     *
+     * @return page number
+     */
+    private int allocatePage() {
+        int page = nFreePages > 0 ? freePages[--nFreePages] : nPages++;
+        newPage(page);
+        return page;
+    }
+
+    /**
+     * Put an overflow page on the free list.
+     *
+     * @param page page number
+     */
+    private void freePage(int page) {
+        if (nFreePages == freePages.length) {
+            freePages = Arrays.copyOf(freePages, Math.max(1, freePages.length * 2));
+        }
+        freePages[nFreePages++] = page;
+    }
+
+    /**
+     * Replace the contents of a page with an empty page, without reading it from the file.
+     *
+     * @param page page number
+     */
+    private void newPage(int page) {
+        pool.put(page, ByteBuffer.allocate(PAGE_SIZE).order(ByteOrder.LITTLE_ENDIAN));
+        pool.markDirty(page);
+    }
+
+    /**
+     * Bounded pool of pages in least recently used order. Evicting a page writes it back to
+     * the file if it changed. Operations look a page up again after loading others, so a page
+     * they still use is always among the most recently used and is never evicted under them.
+     */
+    private final class PagePool {
+        private final int maxPages; // pages kept in memory
+        private final LinkedHashMap<Integer, ByteBuffer> pages; // cached pages, oldest first
+        private final Set<Integer> dirty = new HashSet<>(); // pages changed since being read
+
+        /**
+         * Constructor for an empty pool.
+         *
+         * @param maxPages pages kept in memory
+         */
+        PagePool(int maxPages) {
+            this.maxPages = maxPages;
+            pages = new LinkedHashMap<>(maxPages * 2, 0.75f, true);
+        }
+
+        /**
+         * Get a page, reading it from the file if it is not cached.
+         *
+         * @param page page number
+         * @return page contents
+         * @throws UncheckedIOException if the page cannot be read
+         */
+        ByteBuffer get(int page) {
+            ByteBuffer data = pages.get(page);
+            if (data == null) {
+                data = ByteBuffer.allocate(PAGE_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+                try {
+                    long position = (long) page * PAGE_SIZE;
+                    while (data.hasRemaining()
+                            && channel.read(data, position + data.position()) >= 0) {
+                        continue;
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                data.clear();
+                put(page, data);
+            }
+            return data;
+        }
+
+        /**
+         * Cache a page, evicting the least recently used page if the pool is full.
+         *
+         * @param page page number
+         * @param data page contents
+         * @throws UncheckedIOException if an evicted page cannot be written
+         */
+        void put(int page, ByteBuffer data) {
+            pages.put(page, data);
+            if (pages.size() > maxPages) {
+                Iterator<Map.Entry<Integer, ByteBuffer>> eldest = pages.entrySet().iterator();
+                Map.Entry<Integer, ByteBuffer> entry = eldest.next();
+                eldest.remove();
+                if (dirty.remove(entry.getKey())) {
+                    write(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+
+        /**
+         * Record that a cached page changed and must be written back when evicted.
+         *
+         * @param page page number
+         */
+        void markDirty(int page) {
+            dirty.add(page);
+        }
+
+        /**
+         * Drop every cached page without writing it back.
+         */
+        void clear() {
+            pages.clear();
+            dirty.clear();
+        }
+
+        /**
+         * Write a page to its place in the file.
+         *
+         * @param page page number
+         * @param data page contents
+         * @throws UncheckedIOException if the page cannot be written
+         */
+        private void write(int page, ByteBuffer data) {
+            ByteBuffer source = data.duplicate();
+            source.clear();
+            try {
+                long position = (long) page * PAGE_SIZE;
+                while (source.hasRemaining()) {
+                    channel.write(source, position + source.position());
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Name: Arjun Sawhney
+ */
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.*;
+
+/**
+ * LinearHashTable Tester Class
+ *
+ * @author Arjun Sawhney
+ * @since 06/05/2020
+ */
+public class LinearHashTableTest {
+    Path file;
+    LinearHashTable<Long> hashTable;
+
+    @Before
+    public void setUp() throws IOException {
+        file = Files.createTempFile("linear", ".pages");
+        hashTable = new LinearHashTable<>(file, new LongKeyCodec(),
+                LinearHashTable.MIN_CACHED_PAGES);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        hashTable.close();
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    public void testConstructor() {
+        assertEquals(0, hashTable.size());
+        assertEquals(1, hashTable.pages());
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void testConstructorThrowsIAE() {
+        new LinearHashTable<>(file, new LongKeyCodec(), LinearHashTable.MIN_CACHED_PAGES - 1);
+        fail("Exception not thrown.");
+    }
+
+    @Test
+    public void testInsertAndDelete() {
+        // Far more pages than the pool holds, so most operations read pages back from the file
+        for (long i = 0; i < 50000; i++) {
+            assertTrue(hashTable.insert(i));
+            assertFalse(hashTable.insert(i));
+        }
+        assertEquals(50000, hashTable.size());
+        assertTrue(hashTable.pages() > 100);
+        for (long i = 0; i < 60000; i++) {
+            assertEquals(i < 50000, hashTable.lookup(i));
+        }
+
+        for (long i = 0; i < 50000; i += 2) {
+            assertTrue(hashTable.delete(i));
+            assertFalse(hashTable.delete(i));
+        }
+        for (long i = 0; i < 50000; i++) {
+            assertEquals(i % 2 == 1, hashTable.lookup(i));
+        }
+        assertEquals(25000, hashTable.size());
+    }
+
+    @Test
+    public void testOverflowPages() throws IOException {
+        // Only four 1000-byte keys fit on a page, so buckets often spill onto overflow pages.
+        // The table gets its own file, the one from setUp is still in use
+        Path wideFile = Files.createTempFile("linear", ".pages");
+        LinearHashTable<byte[]> wide = new LinearHashTable<>(wideFile, new BytesKeyCodec(1000),
+                4);
+        try {
+            for (int i = 0; i < 100; i++) {
+                byte[] key = new byte[1000];
+                key[0] = (byte) i;
+                assertTrue(wide.insert(key));
+            }
+            for (int i = 0; i < 100; i++) {
+                byte[] key = new byte[1000];
+                key[0] = (byte) i;
+                assertTrue(wide.lookup(key));
+                assertTrue(wide.delete(key));
+                assertFalse(wide.lookup(key));
+            }
+            assertEquals(0, wide.size());
+        } finally {
+            wide.close();
+            Files.deleteIfExists(wideFile);
+        }
+    }
+
+    @Test
+    public void testCloseDeletesFile() {
+        hashTable.insert(1L);
+        hashTable.close();
+        assertFalse(Files.exists(file));
+    }
+
+    @Test (expected = IllegalStateException.class)
+    public void testClosedThrowsISE() {
+        hashTable.close();
+        hashTable.lookup(1L);
+        fail("Exception not thrown.");
+    }
+
+    @Test (expected = NullPointerException.class)
+    public void testInsertThrowsNPE() {
+        hashTable.insert(null);
+        fail("Exception not thrown.");
+    }
+}
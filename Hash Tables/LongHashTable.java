@@ -0,0 +1,218 @@
+/*
+ * Name: Arjun Sawhney
+ */
+
+/**
+ * HashTable specialized for long values. Values are stored unboxed in a flat long[] using
+ * linear probing, with 0 as the sentinel for an empty slot. The value 0 itself is tracked by a
+ * flag outside the array.
+ *
+ * @author Arjun Sawhney
+ * @since 06/05/2020
+ */
+public class LongHashTable {
+    // constants
+    public static final int RESIZE_FACTOR = HashTable.RESIZE_FACTOR; // resize factor
+    public static final int MIN_CAPACITY = HashTable.MIN_CAPACITY; // minimum initial capacity
+    public static final double MAX_LOAD_FACTOR = HashTable.MAX_LOAD_FACTOR; // maximum load
+    private static final long EMPTY = 0; // sentinel of an empty slot
+    private static final long GOLDEN_RATIO = 0x9E3779B97F4A7C15L; // spreads values
+
+    // instance variables
+    private long[] table; // data storage
+    private boolean hasEmptyValue; // whether the sentinel value itself is stored
+    private int nElems; // number of elements stored
+
+    /**
+     * Constructor for long hash table. The capacity is rounded up to a power of two.
+     *
+     * @param capacity initial capacity
+     * @throws IllegalArgumentException if capacity is less than the minimum
+     *                                  threshold
+     */
+    public LongHashTable(int capacity) {
+        if (capacity < MIN_CAPACITY) {
+            // throws IllegalArgumentException if capacity is less than the minimum threshold
+            throw new IllegalArgumentException();
+        }
+        table = new long[Integer.highestOneBit(capacity - 1) << 1];
+    }
+
+    /**
+     * Insert the value into the hash table.
+     *
+     * @param value value to insert
+     * @return true if the value was inserted, false if the value was already
+     *         present
+     */
+    public boolean insert(long value) {
+        if (value == EMPTY) {
+            // The sentinel cannot live in the array, so it is tracked by a flag
+            if (hasEmptyValue) {
+                return false;
+            }
+            hasEmptyValue = true;
+            nElems++;
+            return true;
+        }
+
+        int index = findSlot(value);
+        if (index >= 0) {
+            // False if the value already exists in the hash table
+            return false;
+        }
+
+        if (getLoadFactor() > MAX_LOAD_FACTOR) {
+            // Before insertion, rehash if the load factor is greater than ⅔ and find the free
+            // slot again in the larger table
+            rehash();
+            index = findSlot(value);
+        }
+        table[-index - 1] = value;
+        nElems++;
+        return true;
+    }
+
+    /**
+     * Delete the given value from the hash table.
+     *
+     * @param value value to delete
+     * @return true if the value was deleted, false if the value was not found
+     */
+    public boolean delete(long value) {
+        if (value == EMPTY) {
+            if (!hasEmptyValue) {
+                return false;
+            }
+            hasEmptyValue = false;
+            nElems--;
+            return true;
+        }
+
+        int index = findSlot(value);
+        if (index < 0) {
+            // False if the value does not exist in the hash table
+            return false;
+        }
+        removeAt(index);
+        nElems--;
+        return true;
+    }
+
+    /**
+     * Check if the given value is present in the hash table.
+     *
+     * @param value value to look up
+     * @return true if the value was found, false if the value was not found
+     */
+    public boolean lookup(long value) {
+        if (value == EMPTY) {
+            return hasEmptyValue;
+        }
+        return findSlot(value) >= 0;
+    }
+
+    /**
+     * Get the total number of elements stored in the hash table.
+     *
+     * @return total number of elements
+     */
+    public int size() {
+        return nElems;
+    }
+
+    /**
+     * Get the capacity of the hash table.
+     *
+     * @return capacity
+     */
+    public int capacity() {
+        return table.length;
+    }
+
+    /**
+     * Home slot of a value in a table of the given power-of-two length, by Fibonacci hashing:
+     * the top bits of the product depend on every bit of the value, while the low bits only
+     * depend on the value's low bits.
+     *
+     * @param value  input
+     * @param length length of the table
+     * @return hash value (index)
+     */
+    private static int homeIndex(long value, int length) {
+        int bits = Integer.numberOfTrailingZeros(length);
+        return (int) ((value * GOLDEN_RATIO) >>> (Long.SIZE - bits));
+    }
+
+    /**
+     * Find the slot holding the given non-sentinel value.
+     *
+     * @param value value to find
+     * @return index of the value, or (-(empty index) - 1) if the value is not stored
+     */
+    private int findSlot(long value) {
+        int mask = table.length - 1;
+        int index = homeIndex(value, table.length);
+
+        while (table[index] != EMPTY) {
+            if (table[index] == value) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+        return -index - 1;
+    }
+
+    /**
+     * Empty the slot at index and move back any later value whose probe passed through it.
+     *
+     * @param index slot to empty
+     */
+    private void removeAt(int index) {
+        int mask = table.length - 1;
+        int next = index;
+
+        while (true) {
+            next = (next + 1) & mask;
+            if (table[next] == EMPTY) {
+                break;
+            }
+            // Distance from the home slot of the value at next, compared against the hole
+            int home = homeIndex(table[next], table.length);
+            if (((next - home) & mask) >= ((next - index) & mask)) {
+                table[index] = table[next];
+                index = next;
+            }
+        }
+        table[index] = EMPTY;
+    }
+
+    /**
+     * Get the load factor of the hash table.
+     *
+     * @return load factor
+     */
+    private double getLoadFactor() {
+        return (double) size() / capacity();
+    }
+
+    /**
+     * Double the capacity of the array and rehash all values.
+     */
+    private void rehash() {
+        long[] oldTable = table;
+        table = new long[oldTable.length * RESIZE_FACTOR];
+        int mask = table.length - 1;
+
+        // Old values are unique, so each one only needs the first free slot from its home
+        for (long value : oldTable) {
+            if (value != EMPTY) {
+                int index = homeIndex(value, table.length);
+                while (table[index] != EMPTY) {
+                    index = (index + 1) & mask;
+                }
+                table[index] = value;
+            }
+        }
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Name: Arjun Sawhney
+ */
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * LongHashTable Tester Class
+ *
+ * @author Arjun Sawhney
+ * @since 06/05/2020
+ */
+public class LongHashTableTest {
+    LongHashTable hashTable = new LongHashTable(12);
+
+    @Test
+    public void testConstructor() {
+        assertEquals(0, hashTable.size());
+        assertEquals(16, hashTable.capacity());
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void testConstructorThrowsIAE() {
+        hashTable = new LongHashTable(8);
+        fail("Exception not thrown.");
+    }
+
+    @Test
+    public void testInsert() {
+        for (long i = -10; i < 10; i++) {
+            assertFalse(hashTable.lookup(i));
+            assertTrue(hashTable.insert(i));
+            assertTrue(hashTable.lookup(i));
+            assertFalse(hashTable.insert(i));
+            assertEquals(i + 11, hashTable.size());
+        }
+        assertEquals(32, hashTable.capacity());
+    }
+
+    @Test
+    public void testDelete() {
+        testInsert();
+
+        for (long i = -10; i < 10; i++) {
+            assertTrue(hashTable.delete(i));
+            assertFalse(hashTable.delete(i));
+            assertFalse(hashTable.lookup(i));
+            assertEquals(9 - i, hashTable.size());
+        }
+    }
+
+    @Test
+    public void testEmptySentinel() {
+        // 0 marks an empty slot, so it is stored outside the array but counted like any value
+        assertFalse(hashTable.lookup(0));
+        assertFalse(hashTable.delete(0));
+        assertTrue(hashTable.insert(0));
+        assertFalse(hashTable.insert(0));
+        assertTrue(hashTable.insert(Long.MIN_VALUE));
+        assertEquals(2, hashTable.size());
+        assertTrue(hashTable.lookup(0));
+
+        assertTrue(hashTable.delete(0));
+        assertFalse(hashTable.lookup(0));
+        assertTrue(hashTable.lookup(Long.MIN_VALUE));
+        assertEquals(1, hashTable.size());
+    }
+
+    @Test
+    public void testDeleteFromClusters() {
+        // Ten values in sixteen slots form probe clusters, deleting any one value must shift
+        // the rest of its cluster back so every other value is still found
+        for (long deleted = 1; deleted <= 10; deleted++) {
+            LongHashTable table = new LongHashTable(16);
+            for (long i = 1; i <= 10; i++) {
+                assertTrue(table.insert(i * 1000003));
+            }
+            assertTrue(table.delete(deleted * 1000003));
+            for (long i = 1; i <= 10; i++) {
+                assertEquals(i != deleted, table.lookup(i * 1000003));
+            }
+            assertEquals(9, table.size());
+        }
+    }
+
+    @Test (timeout = 1000)
+    public void testHighBitValues() {
+        // Values differing only in their top 16 bits must still spread over the whole table
+        for (long i = 1; i < 1 << 16; i++) {
+            assertTrue(hashTable.insert(i << 48));
+        }
+        for (long i = 1; i < 1 << 16; i += 2) {
+            assertTrue(hashTable.delete(i << 48));
+        }
+        for (long i = 1; i < 1 << 16; i++) {
+            assertEquals(i % 2 == 0, hashTable.lookup(i << 48));
+        }
+        assertEquals((1 << 15) - 1, hashTable.size());
+    }
+}
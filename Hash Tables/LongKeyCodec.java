@@ -0,0 +1,50 @@
+/*
+ * Name: Arjun Sawhney
+ */
+
+import java.nio.ByteBuffer;
+
+/**
+ * KeyCodec for Long keys, stored as 8 bytes.
+ *
+ * @author Arjun Sawhney
+ * @since 06/05/2020
+ */
+public class LongKeyCodec implements KeyCodec<Long> {
+    // constants
+    private static final int WIDTH = Long.BYTES; // bytes per key
+
+    /**
+     * Returns the number of bytes every encoded key occupies.
+     *
+     * @return encoded width in bytes
+     */
+    @Override
+    public int width() {
+        return WIDTH;
+    }
+
+    /**
+     * Writes the key into buf starting at offset.
+     *
+     * @param key    key to encode
+     * @param buf    destination buffer
+     * @param offset absolute index of the first byte to write
+     */
+    @Override
+    public void encode(Long key, ByteBuffer buf, int offset) {
+        buf.putLong(offset, key);
+    }
+
+    /**
+     * Reads a key back from buf starting at offset.
+     *
+     * @param buf    source buffer
+     * @param offset absolute index of the first byte to read
+     * @return decoded key
+     */
+    @Override
+    public Long decode(ByteBuffer buf, int offset) {
+        return buf.getLong(offset);
+    }
+}
@@ -0,0 +1,268 @@
+/*
+ * Name: Arjun Sawhney
+ */
+
+/**
+ * Hash map from long keys to long values without boxing. Keys and values are stored in parallel
+ * flat arrays using linear probing, with 0 as the sentinel for an empty key slot. The key 0
+ * itself is tracked outside the arrays.
+ *
+ * @author Arjun Sawhney
+ * @since 06/05/2020
+ */
+public class LongLongHashMap {
+    // constants
+    public static final int RESIZE_FACTOR = HashTable.RESIZE_FACTOR; // resize factor
+    public static final int MIN_CAPACITY = HashTable.MIN_CAPACITY; // minimum initial capacity
+    public static final double MAX_LOAD_FACTOR = HashTable.MAX_LOAD_FACTOR; // maximum load
+    private static final long EMPTY = 0; // sentinel of an empty key slot
+    private static final long GOLDEN_RATIO = 0x9E3779B97F4A7C15L; // spreads keys
+
+    // instance variables
+    private long[] keys; // key storage
+    private long[] values; // value of the key in the same slot
+    private boolean hasEmptyKey; // whether the sentinel key itself is stored
+    private long emptyKeyValue; // value mapped to the sentinel key
+    private int nElems; // number of entries stored
+
+    /**
+     * Constructor for long to long hash map. The capacity is rounded up to a power of two.
+     *
+     * @param capacity initial capacity
+     * @throws IllegalArgumentException if capacity is less than the minimum
+     *                                  threshold
+     */
+    public LongLongHashMap(int capacity) {
+        if (capacity < MIN_CAPACITY) {
+            // throws IllegalArgumentException if capacity is less than the minimum threshold
+            throw new IllegalArgumentException();
+        }
+        keys = new long[Integer.highestOneBit(capacity - 1) << 1];
+        values = new long[keys.length];
+    }
+
+    /**
+     * Insert the key-value pair unless the key is already mapped.
+     *
+     * @param key   key to insert
+     * @param value value to map the key to
+     * @return true if the pair was inserted, false if the key was already present
+     */
+    public boolean insert(long key, long value) {
+        return insert(key, value, false);
+    }
+
+    /**
+     * Map the key to the value, replacing any previous value.
+     *
+     * @param key   key to map
+     * @param value value to map the key to
+     * @return true if the key was newly inserted, false if its value was replaced
+     */
+    public boolean put(long key, long value) {
+        return insert(key, value, true);
+    }
+
+    /**
+     * Get the value mapped to the key.
+     *
+     * @param key          key to look up
+     * @param defaultValue value to return when the key is absent
+     * @return mapped value, or defaultValue if the key is not present
+     */
+    public long get(long key, long defaultValue) {
+        if (key == EMPTY) {
+            return hasEmptyKey ? emptyKeyValue : defaultValue;
+        }
+        int index = findSlot(key);
+        return index >= 0 ? values[index] : defaultValue;
+    }
+
+    /**
+     * Delete the key and its value from the map.
+     *
+     * @param key key to delete
+     * @return true if the key was deleted, false if the key was not found
+     */
+    public boolean delete(long key) {
+        if (key == EMPTY) {
+            if (!hasEmptyKey) {
+                return false;
+            }
+            hasEmptyKey = false;
+            nElems--;
+            return true;
+        }
+
+        int index = findSlot(key);
+        if (index < 0) {
+            // False if the key does not exist in the map
+            return false;
+        }
+        removeAt(index);
+        nElems--;
+        return true;
+    }
+
+    /**
+     * Check if the given key is present in the map.
+     *
+     * @param key key to look up
+     * @return true if the key was found, false if the key was not found
+     */
+    public boolean lookup(long key) {
+        if (key == EMPTY) {
+            return hasEmptyKey;
+        }
+        return findSlot(key) >= 0;
+    }
+
+    /**
+     * Get the total number of entries stored in the map.
+     *
+     * @return total number of entries
+     */
+    public int size() {
+        return nElems;
+    }
+
+    /**
+     * Get the capacity of the map.
+     *
+     * @return capacity
+     */
+    public int capacity() {
+        return keys.length;
+    }
+
+    /**
+     * Shared insert path for insert and put.
+     *
+     * @param key     key to insert
+     * @param value   value to map the key to
+     * @param replace whether an existing mapping is overwritten
+     * @return true if the key was newly inserted, false if it was already present
+     */
+    private boolean insert(long key, long value, boolean replace) {
+        if (key == EMPTY) {
+            boolean inserted = !hasEmptyKey;
+            if (inserted || replace) {
+                emptyKeyValue = value;
+            }
+            if (inserted) {
+                hasEmptyKey = true;
+                nElems++;
+            }
+            return inserted;
+        }
+
+        int index = findSlot(key);
+        if (index >= 0) {
+            if (replace) {
+                values[index] = value;
+            }
+            return false;
+        }
+
+        if (getLoadFactor() > MAX_LOAD_FACTOR) {
+            // Before insertion, rehash if the load factor is greater than ⅔ and find the free
+            // slot again in the larger table
+            rehash();
+            index = findSlot(key);
+        }
+        keys[-index - 1] = key;
+        values[-index - 1] = value;
+        nElems++;
+        return true;
+    }
+
+    /**
+     * Home slot of a key in a table of the given power-of-two length, by Fibonacci hashing:
+     * the top bits of the product depend on every bit of the key, while the low bits only
+     * depend on the key's low bits.
+     *
+     * @param key    input
+     * @param length length of the table
+     * @return hash value (index)
+     */
+    private static int homeIndex(long key, int length) {
+        int bits = Integer.numberOfTrailingZeros(length);
+        return (int) ((key * GOLDEN_RATIO) >>> (Long.SIZE - bits));
+    }
+
+    /**
+     * Find the slot holding the given non-sentinel key.
+     *
+     * @param key key to find
+     * @return index of the key, or (-(empty index) - 1) if the key is not stored
+     */
+    private int findSlot(long key) {
+        int mask = keys.length - 1;
+        int index = homeIndex(key, keys.length);
+
+        while (keys[index] != EMPTY) {
+            if (keys[index] == key) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+        return -index - 1;
+    }
+
+    /**
+     * Empty the slot at index and move back any later entry whose probe passed through it.
+     *
+     * @param index slot to empty
+     */
+    private void removeAt(int index) {
+        int mask = keys.length - 1;
+        int next = index;
+
+        while (true) {
+            next = (next + 1) & mask;
+            if (keys[next] == EMPTY) {
+                break;
+            }
+            // Distance from the home slot of the key at next, compared against the hole
+            int home = homeIndex(keys[next], keys.length);
+            if (((next - home) & mask) >= ((next - index) & mask)) {
+                keys[index] = keys[next];
+                values[index] = values[next];
+                index = next;
+            }
+        }
+        keys[index] = EMPTY;
+    }
+
+    /**
+     * Get the load factor of the map.
+     *
+     * @return load factor
+     */
+    private double getLoadFactor() {
+        return (double) size() / capacity();
+    }
+
+    /**
+     * Double the capacity of the arrays and rehash all entries.
+     */
+    private void rehash() {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        keys = new long[oldKeys.length * RESIZE_FACTOR];
+        values = new long[keys.length];
+        int mask = keys.length - 1;
+
+        // Old keys are unique, so each one only needs the first free slot from its home
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int index = homeIndex(oldKeys[i], keys.length);
+                while (keys[index] != EMPTY) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Name: Arjun Sawhney
+ */
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * LongLongHashMap Tester Class
+ *
+ * @author Arjun Sawhney
+ * @since 06/05/2020
+ */
+public class LongLongHashMapTest {
+    LongLongHashMap map = new LongLongHashMap(10);
+
+    @Test
+    public void testConstructor() {
+        assertEquals(0, map.size());
+        assertEquals(16, map.capacity());
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void testConstructorThrowsIAE() {
+        map = new LongLongHashMap(8);
+        fail("Exception not thrown.");
+    }
+
+    @Test
+    public void testInsertAndPut() {
+        for (long key = 0; key < 100; key++) {
+            assertTrue(map.insert(key * Integer.MAX_VALUE, key));
+            assertFalse(map.insert(key * Integer.MAX_VALUE, -1));
+        }
+        assertEquals(100, map.size());
+
+        for (long key = 0; key < 100; key++) {
+            assertEquals(key, map.get(key * Integer.MAX_VALUE, -1));
+            assertFalse(map.put(key * Integer.MAX_VALUE, key + 1));
+            assertEquals(key + 1, map.get(key * Integer.MAX_VALUE, -1));
+        }
+        assertEquals(-1, map.get(-5, -1));
+        assertEquals(100, map.size());
+    }
+
+    @Test
+    public void testDelete() {
+        testInsertAndPut();
+
+        for (long key = 0; key < 100; key += 2) {
+            assertTrue(map.delete(key * Integer.MAX_VALUE));
+            assertFalse(map.delete(key * Integer.MAX_VALUE));
+        }
+        for (long key = 0; key < 100; key++) {
+            assertEquals(key % 2 == 1, map.lookup(key * Integer.MAX_VALUE));
+            assertEquals(key % 2 == 1 ? key + 1 : -1, map.get(key * Integer.MAX_VALUE, -1));
+        }
+        assertEquals(50, map.size());
+    }
+}
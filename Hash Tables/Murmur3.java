@@ -0,0 +1,262 @@
+/*
+ * Name: Arjun Sawhney
+ */
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * MurmurHash3 x64 128-bit, computed in a single pass over a byte[] slice, a ByteBuffer slice
+ * or the UTF-8 encoding of a CharSequence. The two 64-bit halves are written into an array
+ * supplied by the caller, so hashing never allocates. Callers that must stay thread-safe use
+ * the calling thread's scratch array and read both halves out before hashing again. A
+ * CharSequence hashes the same as its UTF-8 bytes, with unpaired surrogates encoded as '?'
+ * like String.getBytes does.
+ *
+ * @author Arjun Sawhney
+ * @since 06/05/2020
+ */
+final class Murmur3 {
+    // constants
+    private static final long C1 = 0x87C37B91114253D5L; // first block multiplier
+    private static final long C2 = 0x4CF5AD432745937FL; // second block multiplier
+    private static final long MIX_ONE = 0xFF51AFD7ED558CCDL; // first fmix64 multiplier
+    private static final long MIX_TWO = 0xC4CEB9FE1A85EC53L; // second fmix64 multiplier
+    private static final int BLOCK_BYTES = 16; // bytes consumed per round
+    private static final byte REPLACEMENT = '?'; // byte hashed for an unpaired surrogate
+    private static final VarHandle LONGS =
+            MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final ThreadLocal<long[]> SCRATCH =
+            ThreadLocal.withInitial(() -> new long[2]); // per-thread array for hash results
+
+    /**
+     * Static methods only.
+     */
+    private Murmur3() {
+    }
+
+    /**
+     * Get the calling thread's scratch array for hash results. It is shared by every caller on
+     * the thread, so its halves must be copied out before anything else is hashed.
+     *
+     * @return two-element array owned by the calling thread
+     */
+    static long[] scratch() {
+        return SCRATCH.get();
+    }
+
+    /**
+     * Hash a slice of a byte array.
+     *
+     * @param data   buffer holding the bytes
+     * @param offset index of the first byte
+     * @param length number of bytes
+     * @param seed   seed of the hash
+     * @param out    array receiving the low half at index 0 and the high half at index 1
+     * @return out
+     * @throws IndexOutOfBoundsException if the slice is outside the buffer
+     */
+    static long[] hash128(byte[] data, int offset, int length, long seed, long[] out) {
+        if (offset < 0 || length < 0 || offset > data.length - length) {
+            // throws IndexOutOfBoundsException if the slice is outside the buffer
+            throw new IndexOutOfBoundsException();
+        }
+
+        out[0] = seed;
+        out[1] = seed;
+        int end = offset + length;
+        int i = offset;
+        for (; i + BLOCK_BYTES <= end; i += BLOCK_BYTES) {
+            mixBlock((long) LONGS.get(data, i), (long) LONGS.get(data, i + Long.BYTES), out);
+        }
+
+        // Gather the last partial block in little-endian order
+        long k1 = 0;
+        long k2 = 0;
+        for (int b = 0; i + b < end; b++) {
+            long value = (data[i + b] & 0xFFL) << (b % Long.BYTES * Byte.SIZE);
+            if (b < Long.BYTES) {
+                k1 |= value;
+            } else {
+                k2 |= value;
+            }
+        }
+        finish(k1, k2, end - i, length, out);
+        return out;
+    }
+
+    /**
+     * Hash a slice of a ByteBuffer. Only absolute reads are used, so the position and limit
+     * of the buffer are left unchanged.
+     *
+     * @param data   buffer holding the bytes
+     * @param offset index of the first byte
+     * @param length number of bytes
+     * @param seed   seed of the hash
+     * @param out    array receiving the low half at index 0 and the high half at index 1
+     * @return out
+     * @throws IndexOutOfBoundsException if the slice is outside the buffer's limit
+     */
+    static long[] hash128(ByteBuffer data, int offset, int length, long seed, long[] out) {
+        if (offset < 0 || length < 0 || offset > data.limit() - length) {
+            // throws IndexOutOfBoundsException if the slice is outside the buffer
+            throw new IndexOutOfBoundsException();
+        }
+
+        out[0] = seed;
+        out[1] = seed;
+        boolean swap = data.order() != ByteOrder.LITTLE_ENDIAN;
+        int end = offset + length;
+        int i = offset;
+        for (; i + BLOCK_BYTES <= end; i += BLOCK_BYTES) {
+            long k1 = data.getLong(i);
+            long k2 = data.getLong(i + Long.BYTES);
+            if (swap) {
+                k1 = Long.reverseBytes(k1);
+                k2 = Long.reverseBytes(k2);
+            }
+            mixBlock(k1, k2, out);
+        }
+
+        long k1 = 0;
+        long k2 = 0;
+        for (int b = 0; i + b < end; b++) {
+            long value = (data.get(i + b) & 0xFFL) << (b % Long.BYTES * Byte.SIZE);
+            if (b < Long.BYTES) {
+                k1 |= value;
+            } else {
+                k2 |= value;
+            }
+        }
+        finish(k1, k2, end - i, length, out);
+        return out;
+    }
+
+    /**
+     * Hash the UTF-8 encoding of a CharSequence, encoding it on the fly.
+     *
+     * @param data characters to hash
+     * @param seed seed of the hash
+     * @param out  array receiving the low half at index 0 and the high half at index 1
+     * @return out
+     */
+    static long[] hash128(CharSequence data, long seed, long[] out) {
+        out[0] = seed;
+        out[1] = seed;
+        long k1 = 0;
+        long k2 = 0;
+        int filled = 0; // bytes gathered into k1 and k2
+        long length = 0; // bytes encoded so far
+
+        for (int i = 0; i < data.length(); i++) {
+            // Up to four encoded bytes of one code point, lowest byte first
+            char c = data.charAt(i);
+            int bytes;
+            int count;
+            if (c < 0x80) {
+                bytes = c;
+                count = 1;
+            } else if (c < 0x800) {
+                bytes = (0xC0 | c >>> 6) | (0x80 | c & 0x3F) << 8;
+                count = 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < data.length()
+                    && Character.isLowSurrogate(data.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, data.charAt(++i));
+                bytes = (0xF0 | codePoint >>> 18) | (0x80 | codePoint >>> 12 & 0x3F) << 8
+                        | (0x80 | codePoint >>> 6 & 0x3F) << 16 | (0x80 | codePoint & 0x3F) << 24;
+                count = 4;
+            } else if (Character.isSurrogate(c)) {
+                bytes = REPLACEMENT;
+                count = 1;
+            } else {
+                bytes = (0xE0 | c >>> 12) | (0x80 | c >>> 6 & 0x3F) << 8
+                        | (0x80 | c & 0x3F) << 16;
+                count = 3;
+            }
+
+            for (int b = 0; b < count; b++, bytes >>>= Byte.SIZE) {
+                long value = (bytes & 0xFFL) << (filled % Long.BYTES * Byte.SIZE);
+                if (filled < Long.BYTES) {
+                    k1 |= value;
+                } else {
+                    k2 |= value;
+                }
+                if (++filled == BLOCK_BYTES) {
+                    mixBlock(k1, k2, out);
+                    k1 = 0;
+                    k2 = 0;
+                    filled = 0;
+                }
+            }
+            length += count;
+        }
+        finish(k1, k2, filled, length, out);
+        return out;
+    }
+
+    /**
+     * Mix one full 16-byte block into the running hash.
+     *
+     * @param k1    first 8 bytes of the block, little-endian
+     * @param k2    last 8 bytes of the block, little-endian
+     * @param state running hash, updated in place
+     */
+    private static void mixBlock(long k1, long k2, long[] state) {
+        long h1 = state[0];
+        long h2 = state[1];
+
+        h1 ^= Long.rotateLeft(k1 * C1, 31) * C2;
+        h1 = (Long.rotateLeft(h1, 27) + h2) * 5 + 0x52DCE729;
+        h2 ^= Long.rotateLeft(k2 * C2, 33) * C1;
+        h2 = (Long.rotateLeft(h2, 31) + h1) * 5 + 0x38495AB5;
+
+        state[0] = h1;
+        state[1] = h2;
+    }
+
+    /**
+     * Mix in the last partial block and the length, then finalize the hash.
+     *
+     * @param k1     bytes 0 to 7 of the partial block, little-endian
+     * @param k2     bytes 8 to 15 of the partial block, little-endian
+     * @param tail   number of bytes in the partial block
+     * @param length total number of bytes hashed
+     * @param state  running hash, replaced by the final hash
+     */
+    private static void finish(long k1, long k2, int tail, long length, long[] state) {
+        long h1 = state[0];
+        long h2 = state[1];
+        if (tail > Long.BYTES) {
+            h2 ^= Long.rotateLeft(k2 * C2, 33) * C1;
+        }
+        if (tail > 0) {
+            h1 ^= Long.rotateLeft(k1 * C1, 31) * C2;
+        }
+
+        h1 ^= length;
+        h2 ^= length;
+        h1 += h2;
+        h2 += h1;
+        h1 = fmix(h1);
+        h2 = fmix(h2);
+        h1 += h2;
+        h2 += h1;
+
+        state[0] = h1;
+        state[1] = h2;
+    }
+
+    /**
+     * Murmur3 fmix64 finalizer, so every input bit affects every output bit.
+     *
+     * @param k value to mix
+     * @return mixed value
+     */
+    static long fmix(long k) {
+        k = (k ^ (k >>> 33)) * MIX_ONE;
+        k = (k ^ (k >>> 33)) * MIX_TWO;
+        return k ^ (k >>> 33);
+    }
+}
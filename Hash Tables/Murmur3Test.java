@@ -0,0 +1,71 @@
+/*
+ * Name: Arjun Sawhney
+ */
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+/**
+ * Murmur3 Tester Class
+ *
+ * @author Arjun Sawhney
+ * @since 06/05/2020
+ */
+public class Murmur3Test {
+    long[] hash = new long[2];
+
+    @Test
+    public void testKnownHashes() {
+        Murmur3.hash128("", 0, hash);
+        assertArrayEquals(new long[] {0, 0}, hash);
+
+        // Reference value of MurmurHash3_x64_128 with seed 0
+        Murmur3.hash128("The quick brown fox jumps over the lazy dog", 0, hash);
+        assertArrayEquals(new long[] {0xE34BBC7BBC071B6CL, 0x7A433CA9C49A9347L}, hash);
+    }
+
+    @Test
+    public void testSameHashForEveryForm() {
+        String[] values = {"", "a", "fifteen bytes!!", "sixteen bytes!!!", "seventeen bytes!!",
+            "héllo wörld 日本語 😀 and some more text",
+            "unpaired \uD800 surrogate \uDC00"};
+        long[] expected = new long[2];
+        for (String value : values) {
+            Murmur3.hash128(value, 42, expected);
+
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            byte[] padded = new byte[utf8.length + 10];
+            System.arraycopy(utf8, 0, padded, 3, utf8.length);
+            Murmur3.hash128(padded, 3, utf8.length, 42, hash);
+            assertArrayEquals(expected, hash);
+
+            ByteBuffer buffer = ByteBuffer.wrap(padded).order(ByteOrder.BIG_ENDIAN);
+            Murmur3.hash128(buffer, 3, utf8.length, 42, hash);
+            assertArrayEquals(expected, hash);
+            ByteBuffer direct = ByteBuffer.allocateDirect(padded.length).put(padded);
+            Murmur3.hash128(direct.order(ByteOrder.LITTLE_ENDIAN), 3, utf8.length, 42, hash);
+            assertArrayEquals(expected, hash);
+            assertEquals(padded.length, direct.position());
+        }
+    }
+
+    @Test
+    public void testSeedChangesHash() {
+        long[] other = new long[2];
+        Murmur3.hash128("value", 0, hash);
+        Murmur3.hash128("value", 1, other);
+        assertTrue(hash[0] != other[0]);
+        assertTrue(hash[1] != other[1]);
+    }
+
+    @Test (expected = IndexOutOfBoundsException.class)
+    public void testHashThrowsIOOBE() {
+        Murmur3.hash128(new byte[10], 5, 6, 0, hash);
+        fail("Exception not thrown.");
+    }
+}
@@ -0,0 +1,511 @@
+/*
+ * Name: Arjun Sawhney
+ */
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * HashTable that keeps its slots outside the Java heap in a direct ByteBuffer, so a large table
+ * is one native block instead of millions of objects for the garbage collector to scan. Keys
+ * are stored in their fixed-width KeyCodec encoding using linear probing, optionally followed
+ * by a long value.
+ *
+ * Slot layout: 4 byte hash tag (0 when the slot is empty), the encoded key, then the 8 byte
+ * value if the table was built with values.
+ *
+ * Snapshot layout: a header of six little-endian ints (MAGIC, VERSION, key width, 1 if the
+ * table has values, number of slots, number of keys) followed by the slots exactly as they are
+ * laid out in memory, so a snapshot can be mapped and probed without being rebuilt.
+ *
+ * @param <K> Generic type of key
+ * @author Arjun Sawhney
+ * @since 06/05/2020
+ */
+public class OffHeapHashTable<K> implements AutoCloseable {
+    // constants
+    public static final int RESIZE_FACTOR = HashTable.RESIZE_FACTOR; // resize factor
+    public static final int MIN_CAPACITY = HashTable.MIN_CAPACITY; // minimum initial capacity
+    public static final double MAX_LOAD_FACTOR = HashTable.MAX_LOAD_FACTOR; // maximum load
+    private static final int EMPTY = 0; // tag of an empty slot
+    private static final int OCCUPIED_BIT = Integer.MIN_VALUE; // keeps stored tags non-zero
+    private static final int TAG_BYTES = Integer.BYTES; // bytes of the hash tag
+    private static final int VALUE_BYTES = Long.BYTES; // bytes of the optional value
+    private static final long GOLDEN_RATIO = 0x9E3779B97F4A7C15L; // multiplier used by the hash
+    private static final int MAGIC = 0x4F484854; // first int of every snapshot file
+    private static final int VERSION = 2; // snapshot layout and key hash version
+    private static final int HEADER_BYTES = 6 * Integer.BYTES; // bytes of the snapshot header
+
+    // instance variables
+    private final KeyCodec<K> codec; // key encoding
+    private final int keyWidth; // bytes per encoded key
+    private final int slotWidth; // bytes per slot
+    private final boolean withValues; // whether every slot carries a long value
+    private final ByteBuffer probe; // reusable buffer holding the encoding of the current key
+    private ByteBuffer slots; // off-heap slot storage, null once closed
+    private int nSlots; // number of slots
+    private int nElems; // number of elements stored
+
+    /**
+     * Constructor for an off-heap hash set of keys.
+     *
+     * @param capacity initial capacity, rounded up to a power of two
+     * @param codec    fixed-width key encoding
+     * @throws IllegalArgumentException if capacity is less than the minimum
+     *                                  threshold
+     * @throws NullPointerException     if codec is null
+     */
+    public OffHeapHashTable(int capacity, KeyCodec<K> codec) {
+        this(capacity, codec, false);
+    }
+
+    /**
+     * Constructor for an off-heap hash table, optionally mapping each key to a long value.
+     *
+     * @param capacity   initial capacity, rounded up to a power of two
+     * @param codec      fixed-width key encoding
+     * @param withValues true to store a long value with every key
+     * @throws IllegalArgumentException if capacity is less than the minimum
+     *                                  threshold
+     * @throws NullPointerException     if codec is null
+     */
+    public OffHeapHashTable(int capacity, KeyCodec<K> codec, boolean withValues) {
+        if (codec == null) {
+            // throws NullPointerException if the codec is null
+            throw new NullPointerException();
+        } else if (capacity < MIN_CAPACITY) {
+            // throws IllegalArgumentException if capacity is less than the minimum threshold
+            throw new IllegalArgumentException();
+        }
+
+        this.codec = codec;
+        this.withValues = withValues;
+        keyWidth = codec.width();
+        slotWidth = TAG_BYTES + keyWidth + (withValues ? VALUE_BYTES : 0);
+        probe = ByteBuffer.allocate(keyWidth).order(ByteOrder.LITTLE_ENDIAN);
+        nSlots = Integer.highestOneBit(capacity - 1) << 1;
+        slots = allocate(nSlots);
+    }
+
+    /**
+     * Insert the key into the hash table.
+     *
+     * @param key key to insert
+     * @return true if the key was inserted, false if the key was already present
+     * @throws NullPointerException  if the key is null
+     * @throws IllegalStateException if the table has been closed
+     */
+    public boolean insert(K key) {
+        int hash = encode(key);
+        int index = findSlot(hash);
+        if (index >= 0) {
+            // False if the key already exists in the hash table
+            return false;
+        }
+        insertAt(-index - 1, hash, 0);
+        return true;
+    }
+
+    /**
+     * Map the key to the value, replacing any previous value.
+     *
+     * @param key   key to map
+     * @param value value to map the key to
+     * @return true if the key was newly inserted, false if its value was replaced
+     * @throws NullPointerException  if the key is null
+     * @throws IllegalStateException if the table has been closed or was built without values
+     */
+    public boolean put(K key, long value) {
+        if (!withValues) {
+            // throws IllegalStateException if slots have no room for a value
+            throw new IllegalStateException();
+        }
+
+        int hash = encode(key);
+        int index = findSlot(hash);
+        if (index >= 0) {
+            slots.putLong(valueOffset(index), value);
+            return false;
+        }
+        insertAt(-index - 1, hash, value);
+        return true;
+    }
+
+    /**
+     * Get the value mapped to the key.
+     *
+     * @param key          key to look up
+     * @param defaultValue value to return when the key is absent
+     * @return mapped value, or defaultValue if the key is not present
+     * @throws NullPointerException  if the key is null
+     * @throws IllegalStateException if the table has been closed or was built without values
+     */
+    public long get(K key, long defaultValue) {
+        if (!withValues) {
+            // throws IllegalStateException if slots have no room for a value
+            throw new IllegalStateException();
+        }
+
+        int index = findSlot(encode(key));
+        return index >= 0 ? slots.getLong(valueOffset(index)) : defaultValue;
+    }
+
+    /**
+     * Delete the given key from the hash table.
+     *
+     * @param key key to delete
+     * @return true if the key was deleted, false if the key was not found
+     * @throws NullPointerException  if the key is null
+     * @throws IllegalStateException if the table has been closed
+     */
+    public boolean delete(K key) {
+        int index = findSlot(encode(key));
+        if (index < 0) {
+            // False if the key does not exist in the hash table
+            return false;
+        }
+        removeAt(index);
+        nElems--;
+        return true;
+    }
+
+    /**
+     * Check if the given key is present in the hash table.
+     *
+     * @param key key to look up
+     * @return true if the key was found, false if the key was not found
+     * @throws NullPointerException  if the key is null
+     * @throws IllegalStateException if the table has been closed
+     */
+    public boolean lookup(K key) {
+        return findSlot(encode(key)) >= 0;
+    }
+
+    /**
+     * Get the total number of keys stored in the hash table.
+     *
+     * @return total number of keys
+     */
+    public int size() {
+        return nElems;
+    }
+
+    /**
+     * Get the capacity of the hash table.
+     *
+     * @return capacity
+     */
+    public int capacity() {
+        return nSlots;
+    }
+
+    /**
+     * Write a snapshot of the table to a file, replacing the file if it exists. The slots are
+     * written as they are laid out in memory, so no key is decoded or rehashed. The snapshot is
+     * written to a temporary file in the same directory, forced to disk and then moved over
+     * the target, so a crash never leaves a partial snapshot behind, and a table opened from
+     * the target keeps its private mapping of the old file and can be saved back to it.
+     *
+     * @param path file to write
+     * @throws IOException           if the file cannot be written
+     * @throws IllegalStateException if the table has been closed
+     */
+    public void save(Path path) throws IOException {
+        if (slots == null) {
+            // throws IllegalStateException if the table has been closed
+            throw new IllegalStateException();
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).putInt(VERSION).putInt(keyWidth).putInt(withValues ? 1 : 0)
+                .putInt(nSlots).putInt(nElems).flip();
+        ByteBuffer body = slots.duplicate();
+        body.clear();
+
+        Path target = path.toAbsolutePath();
+        Path temp = Files.createTempFile(target.getParent(), target.getFileName().toString(),
+                ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                ByteBuffer[] parts = {header, body};
+                while (body.hasRemaining()) {
+                    channel.write(parts);
+                }
+                channel.force(true);
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            // Only left behind if writing or moving failed
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Open a snapshot written by save. The file is memory mapped and probed in place, so
+     * opening takes the same time for any number of keys and only the pages that lookups touch
+     * are read from disk. The mapping is private: the opened table can still be changed, but
+     * changes are never written back to the file.
+     *
+     * @param path  snapshot file
+     * @param codec key encoding the snapshot was written with
+     * @param <K>   Generic type of key
+     * @return hash table backed by the mapped file
+     * @throws IOException              if the file cannot be read or is not a valid snapshot
+     * @throws IllegalArgumentException if the codec width differs from the snapshot
+     * @throws NullPointerException     if path or codec is null
+     */
+    public static <K> OffHeapHashTable<K> open(Path path, KeyCodec<K> codec) throws IOException {
+        if (codec == null) {
+            // throws NullPointerException if the codec is null
+            throw new NullPointerException();
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            long fileSize = channel.size();
+            if (fileSize < HEADER_BYTES || fileSize > Integer.MAX_VALUE) {
+                // throws IOException if the file cannot hold a snapshot
+                throw new IOException();
+            }
+
+            // The mapping stays valid after the channel is closed
+            ByteBuffer mapped = channel.map(FileChannel.MapMode.PRIVATE, 0, fileSize)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            if (mapped.getInt(0) != MAGIC || mapped.getInt(Integer.BYTES) != VERSION) {
+                // throws IOException if the file is not a snapshot of this layout
+                throw new IOException();
+            } else if (mapped.getInt(2 * Integer.BYTES) != codec.width()) {
+                // throws IllegalArgumentException if the keys were written with another width
+                throw new IllegalArgumentException();
+            }
+
+            boolean withValues = mapped.getInt(3 * Integer.BYTES) == 1;
+            int count = mapped.getInt(4 * Integer.BYTES);
+            int slotWidth = TAG_BYTES + codec.width() + (withValues ? VALUE_BYTES : 0);
+            if (Integer.bitCount(count) != 1
+                    || fileSize != HEADER_BYTES + (long) count * slotWidth) {
+                // throws IOException if the file was truncated or its header is corrupt
+                throw new IOException();
+            }
+
+            // Start from the smallest table and swap in the mapped slots
+            OffHeapHashTable<K> table = new OffHeapHashTable<>(MIN_CAPACITY, codec, withValues);
+            mapped.position(HEADER_BYTES);
+            table.slots = mapped.slice().order(ByteOrder.LITTLE_ENDIAN);
+            table.nSlots = count;
+            table.nElems = mapped.getInt(5 * Integer.BYTES);
+            return table;
+        }
+    }
+
+    /**
+     * Release the off-heap storage. Every later operation other than size and capacity throws
+     * IllegalStateException. Closing twice has no effect.
+     */
+    @Override
+    public void close() {
+        slots = null;
+        nElems = 0;
+    }
+
+    /**
+     * Allocate zeroed off-heap storage for the given number of slots.
+     *
+     * @param count number of slots
+     * @return direct buffer holding count empty slots
+     * @throws IllegalStateException if the slots do not fit in a single buffer
+     */
+    private ByteBuffer allocate(int count) {
+        long bytes = (long) count * slotWidth;
+        if (bytes > Integer.MAX_VALUE) {
+            // throws IllegalStateException if the table outgrows what one buffer can address
+            throw new IllegalStateException();
+        }
+        return ByteBuffer.allocateDirect((int) bytes).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Encode the key into the probe buffer and hash its bytes.
+     *
+     * @param key key to encode
+     * @return tag of the key
+     * @throws NullPointerException  if the key is null
+     * @throws IllegalStateException if the table has been closed
+     */
+    private int encode(K key) {
+        if (key == null) {
+            // throws NullPointerException if the key is null
+            throw new NullPointerException();
+        } else if (slots == null) {
+            // throws IllegalStateException if the table has been closed
+            throw new IllegalStateException();
+        }
+
+        codec.encode(key, probe, 0);
+        return hashBytes(probe, keyWidth);
+    }
+
+    /**
+     * Hash the first length bytes of buf, eight bytes at a time. The Murmur3 finalizer at the
+     * end spreads every input bit over the low bits that pick the home slot, so keys differing
+     * only in their high bytes still land far apart. Snapshots store these tags, so changing
+     * the hash needs a new VERSION.
+     *
+     * @param buf    bytes to hash
+     * @param length number of bytes to hash
+     * @return tag with the occupied bit set
+     */
+    static int hashBytes(ByteBuffer buf, int length) {
+        long hash = length;
+        int i = 0;
+        for (; i + Long.BYTES <= length; i += Long.BYTES) {
+            hash = (hash ^ buf.getLong(i)) * GOLDEN_RATIO;
+            hash ^= hash >>> 29;
+        }
+        for (; i < length; i++) {
+            hash = (hash ^ (buf.get(i) & 0xFF)) * GOLDEN_RATIO;
+        }
+        return (int) Murmur3.fmix(hash) | OCCUPIED_BIT;
+    }
+
+    /**
+     * Home slot of a tag in a table of the given power-of-two number of slots.
+     *
+     * @param tag   hash tag
+     * @param count number of slots
+     * @return index the tag would occupy without any collisions
+     */
+    private static int homeIndex(int tag, int count) {
+        return tag & (count - 1);
+    }
+
+    /**
+     * Byte offset of the value in the slot at index.
+     *
+     * @param index slot index
+     * @return absolute offset of the value
+     */
+    private int valueOffset(int index) {
+        return index * slotWidth + TAG_BYTES + keyWidth;
+    }
+
+    /**
+     * Find the slot holding the key currently encoded in the probe buffer.
+     *
+     * @param hash tag of the key
+     * @return index of the key, or (-(empty index) - 1) if the key is not stored
+     */
+    private int findSlot(int hash) {
+        int mask = nSlots - 1;
+        int index = homeIndex(hash, nSlots);
+
+        for (int tag = slots.getInt(index * slotWidth); tag != EMPTY;
+                tag = slots.getInt(index * slotWidth)) {
+            if (tag == hash && keyEquals(index * slotWidth + TAG_BYTES)) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+        return -index - 1;
+    }
+
+    /**
+     * Compare the key stored at offset with the key in the probe buffer.
+     *
+     * @param offset absolute offset of a stored key
+     * @return true if the encodings are equal
+     */
+    private boolean keyEquals(int offset) {
+        int i = 0;
+        for (; i + Long.BYTES <= keyWidth; i += Long.BYTES) {
+            if (slots.getLong(offset + i) != probe.getLong(i)) {
+                return false;
+            }
+        }
+        for (; i < keyWidth; i++) {
+            if (slots.get(offset + i) != probe.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Write the key in the probe buffer into an empty slot, growing the table first if the
+     * load factor is greater than ⅔.
+     *
+     * @param index empty slot found by the probe
+     * @param hash  tag of the key
+     * @param value value to store if the table has values
+     */
+    private void insertAt(int index, int hash, long value) {
+        if ((double) nElems / nSlots > MAX_LOAD_FACTOR) {
+            // Find the free slot again in the larger table
+            rehash();
+            index = -findSlot(hash) - 1;
+        }
+
+        int offset = index * slotWidth;
+        slots.putInt(offset, hash);
+        slots.put(offset + TAG_BYTES, probe, 0, keyWidth);
+        if (withValues) {
+            slots.putLong(valueOffset(index), value);
+        }
+        nElems++;
+    }
+
+    /**
+     * Empty the slot at index and move back any later slot whose probe passed through it.
+     *
+     * @param index slot to empty
+     */
+    private void removeAt(int index) {
+        int mask = nSlots - 1;
+        int next = index;
+
+        while (true) {
+            next = (next + 1) & mask;
+            int tag = slots.getInt(next * slotWidth);
+            if (tag == EMPTY) {
+                break;
+            }
+            // Distance from the home slot of the tag at next, compared against the hole
+            if (((next - homeIndex(tag, nSlots)) & mask) >= ((next - index) & mask)) {
+                slots.put(index * slotWidth, slots, next * slotWidth, slotWidth);
+                index = next;
+            }
+        }
+        slots.putInt(index * slotWidth, EMPTY);
+    }
+
+    /**
+     * Double the number of slots and move every stored slot using its cached tag.
+     */
+    private void rehash() {
+        ByteBuffer oldSlots = slots;
+        int oldCount = nSlots;
+        nSlots = oldCount * RESIZE_FACTOR;
+        slots = allocate(nSlots);
+        int mask = nSlots - 1;
+
+        // Stored keys are unique, so each slot is copied into the first free slot from its home
+        // without decoding or re-hashing the key
+        for (int i = 0; i < oldCount; i++) {
+            int tag = oldSlots.getInt(i * slotWidth);
+            if (tag != EMPTY) {
+                int index = homeIndex(tag, nSlots);
+                while (slots.getInt(index * slotWidth) != EMPTY) {
+                    index = (index + 1) & mask;
+                }
+                slots.put(index * slotWidth, oldSlots, i * slotWidth, slotWidth);
+            }
+        }
+    }
+}
@@ -0,0 +1,224 @@
+/*
+ * Name: Arjun Sawhney
+ */
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * OffHeapHashTable Tester Class
+ *
+ * @author Arjun Sawhney
+ * @since 06/05/2020
+ */
+public class OffHeapHashTableTest {
+    OffHeapHashTable<Long> hashTable = new OffHeapHashTable<>(12, new LongKeyCodec(), true);
+
+    @Test
+    public void testConstructor() {
+        assertEquals(0, hashTable.size());
+        assertEquals(16, hashTable.capacity());
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void testConstructorThrowsIAE() {
+        hashTable = new OffHeapHashTable<>(8, new LongKeyCodec());
+        fail("Exception not thrown.");
+    }
+
+    @Test
+    public void testInsertAndDelete() {
+        for (long i = 0; i < 500; i++) {
+            assertFalse(hashTable.lookup(i));
+            assertTrue(hashTable.insert(i));
+            assertTrue(hashTable.lookup(i));
+            assertFalse(hashTable.insert(i));
+            assertEquals(i + 1, hashTable.size());
+        }
+
+        for (long i = 0; i < 500; i += 2) {
+            assertTrue(hashTable.delete(i));
+            assertFalse(hashTable.delete(i));
+        }
+        for (long i = 0; i < 500; i++) {
+            assertEquals(i % 2 == 1, hashTable.lookup(i));
+        }
+        assertEquals(250, hashTable.size());
+    }
+
+    @Test
+    public void testValues() {
+        for (long i = 0; i < 100; i++) {
+            assertTrue(hashTable.put(i, i * i));
+        }
+        for (long i = 0; i < 100; i++) {
+            assertEquals(i * i, hashTable.get(i, -1));
+            assertFalse(hashTable.put(i, -i));
+            assertEquals(-i, hashTable.get(i, -1));
+        }
+        assertEquals(-1, hashTable.get(1000L, -1));
+    }
+
+    @Test
+    public void testByteKeys() {
+        OffHeapHashTable<byte[]> bytes = new OffHeapHashTable<>(10, new BytesKeyCodec(11));
+        for (int i = 0; i < 100; i++) {
+            byte[] key = new byte[11];
+            key[i % 10] = (byte) (i + 1);
+            key[10] = (byte) (i / 10);
+            assertTrue(bytes.insert(key));
+            assertTrue(bytes.lookup(key.clone()));
+            assertFalse(bytes.insert(key.clone()));
+        }
+        assertEquals(100, bytes.size());
+    }
+
+    @Test
+    public void testSaveAndOpen() throws IOException {
+        for (long i = 0; i < 1000; i++) {
+            hashTable.put(i, i * 3);
+        }
+        Path path = Files.createTempFile("snapshot", ".tbl");
+        try {
+            hashTable.save(path);
+            try (OffHeapHashTable<Long> opened = OffHeapHashTable.open(path, new LongKeyCodec())) {
+                assertEquals(1000, opened.size());
+                assertEquals(hashTable.capacity(), opened.capacity());
+                for (long i = 0; i < 1000; i++) {
+                    assertEquals(i * 3, opened.get(i, -1));
+                }
+                assertFalse(opened.lookup(1000L));
+
+                // The mapped table can still change and grow without touching the file
+                for (long i = 1000; i < 3000; i++) {
+                    assertTrue(opened.insert(i));
+                }
+                assertTrue(opened.delete(0L));
+                assertEquals(2999, opened.size());
+            }
+
+            try (OffHeapHashTable<Long> reopened =
+                    OffHeapHashTable.open(path, new LongKeyCodec())) {
+                assertEquals(1000, reopened.size());
+                assertTrue(reopened.lookup(0L));
+                assertFalse(reopened.lookup(1000L));
+            }
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    public void testSaveBackToOpenedFile() throws IOException {
+        for (long i = 0; i < 1000; i++) {
+            hashTable.put(i, i * 3);
+        }
+        Path path = Files.createTempFile("snapshot", ".tbl");
+        try {
+            hashTable.save(path);
+            try (OffHeapHashTable<Long> opened = OffHeapHashTable.open(path, new LongKeyCodec())) {
+                // Saving over the file the table is mapped from must not pull it out from under
+                // the mapping
+                assertTrue(opened.put(1000L, 7));
+                opened.save(path);
+                for (long i = 0; i < 1000; i++) {
+                    assertEquals(i * 3, opened.get(i, -1));
+                }
+                assertEquals(7, opened.get(1000L, -1));
+            }
+
+            try (OffHeapHashTable<Long> reopened =
+                    OffHeapHashTable.open(path, new LongKeyCodec())) {
+                assertEquals(1001, reopened.size());
+                for (long i = 0; i < 1000; i++) {
+                    assertEquals(i * 3, reopened.get(i, -1));
+                }
+                assertEquals(7, reopened.get(1000L, -1));
+            }
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    public void testHighByteKeysSpread() {
+        // Keys differing only in their top byte must not share a handful of home slots
+        LongKeyCodec codec = new LongKeyCodec();
+        ByteBuffer buf = ByteBuffer.allocate(Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        Set<Integer> homes = new HashSet<>();
+        for (long i = 0; i < 256; i++) {
+            codec.encode(i << 56, buf, 0);
+            homes.add(OffHeapHashTable.hashBytes(buf, Long.BYTES) & 4095);
+        }
+        assertTrue(homes.size() > 240);
+    }
+
+    @Test (expected = IOException.class)
+    public void testOpenOldVersionThrowsIOE() throws IOException {
+        Path path = Files.createTempFile("snapshot", ".tbl");
+        try {
+            // Version 1 snapshots hashed keys differently, so their slots cannot be probed
+            hashTable.save(path);
+            byte[] bytes = Files.readAllBytes(path);
+            ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).putInt(Integer.BYTES, 1);
+            Files.write(path, bytes);
+            OffHeapHashTable.open(path, new LongKeyCodec());
+            fail("Exception not thrown.");
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test (expected = IOException.class)
+    public void testOpenThrowsIOE() throws IOException {
+        Path path = Files.createTempFile("snapshot", ".tbl");
+        try {
+            Files.write(path, new byte[100]);
+            OffHeapHashTable.open(path, new LongKeyCodec());
+            fail("Exception not thrown.");
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void testOpenWithOtherCodecThrowsIAE() throws IOException {
+        Path path = Files.createTempFile("snapshot", ".tbl");
+        try {
+            hashTable.save(path);
+            OffHeapHashTable.open(path, new BytesKeyCodec(4));
+            fail("Exception not thrown.");
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test (expected = IllegalStateException.class)
+    public void testClosedThrowsISE() {
+        hashTable.insert(1L);
+        hashTable.close();
+        hashTable.lookup(1L);
+        fail("Exception not thrown.");
+    }
+
+    @Test (expected = IllegalStateException.class)
+    public void testValuesWithoutValueSlotsThrowsISE() {
+        new OffHeapHashTable<>(10, new LongKeyCodec()).put(1L, 1);
+        fail("Exception not thrown.");
+    }
+
+    @Test (expected = NullPointerException.class)
+    public void testInsertThrowsNPE() {
+        hashTable.insert(null);
+        fail("Exception not thrown.");
+    }
+}
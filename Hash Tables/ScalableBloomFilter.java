@@ -0,0 +1,227 @@
+/*
+ * Name: Arjun Sawhney
+ */
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+
+/**
+ * Bloom filter for streams of unknown size, made of a chain of BloomFilter stages. New values
+ * go into the newest stage, and once it holds as many values as it was sized for, a new stage
+ * is added with GROWTH_FACTOR times the capacity and TIGHTENING_RATIO times the false positive
+ * rate. The stage rates form a geometric series that sums to at most the rate asked for, so
+ * the overall false positive rate stays bounded however many values arrive, while the memory
+ * grows only in proportion to them.
+ *
+ * @author Arjun Sawhney
+ * @since 06/05/2020
+ */
+public class ScalableBloomFilter {
+    // constants
+    public static final int GROWTH_FACTOR = 2; // capacity of a stage relative to the last
+    public static final double TIGHTENING_RATIO = 0.5; // fpp of a stage relative to the last
+    private static final long SEED = 0; // seed of the 128-bit hash
+
+    // instance variables
+    private final ArrayList<BloomFilter> stages = new ArrayList<>(); // oldest stage first
+    private long stageCapacity; // number of values the newest stage is sized for
+    private double stageFpp; // false positive rate of the newest stage when full
+    private long stageSize; // number of values inserted into the newest stage
+    private long nElems; // number of values inserted into all stages
+
+    /**
+     * Constructor for a scalable bloom filter.
+     *
+     * @param initialCapacity number of values the first stage is sized for
+     * @param fpp             bound on the overall false positive rate
+     * @throws IllegalArgumentException if initialCapacity is not positive or fpp is not
+     *                                  strictly between 0 and 1
+     */
+    public ScalableBloomFilter(long initialCapacity, double fpp) {
+        if (initialCapacity <= 0 || !(fpp > 0 && fpp < 1)) {
+            // throws IllegalArgumentException if the sizing parameters are out of range
+            throw new IllegalArgumentException();
+        }
+
+        // p0 + p0 r + p0 r² + ... = p0 / (1 - r), so the first stage gets p (1 - r)
+        stageCapacity = initialCapacity;
+        stageFpp = fpp * (1 - TIGHTENING_RATIO);
+        stages.add(new BloomFilter(stageCapacity, stageFpp));
+    }
+
+    /**
+     * Insert the value into the bloom filter, unless it might already be present.
+     *
+     * @param value value to insert
+     * @return true if the value was inserted, false if it might already be present
+     * @throws NullPointerException if value is null
+     */
+    public boolean insert(CharSequence value) {
+        if (value == null) {
+            // throws NullPointerException if value is null
+            throw new NullPointerException();
+        }
+
+        long[] hash = Murmur3.hash128(value, SEED, Murmur3.scratch());
+        return insertHashed(hash[0], hash[1]);
+    }
+
+    /**
+     * Insert the value given as a slice of bytes into the bloom filter, unless it might
+     * already be present.
+     *
+     * @param bytes  buffer holding the value
+     * @param offset index of the first byte of the value
+     * @param length number of bytes of the value
+     * @return true if the value was inserted, false if it might already be present
+     * @throws NullPointerException      if bytes is null
+     * @throws IndexOutOfBoundsException if the slice is outside the buffer
+     */
+    public boolean insert(byte[] bytes, int offset, int length) {
+        // NullPointerException and IndexOutOfBoundsException thrown by Murmur3 hash128
+        long[] hash = Murmur3.hash128(bytes, offset, length, SEED, Murmur3.scratch());
+        return insertHashed(hash[0], hash[1]);
+    }
+
+    /**
+     * Insert the value given as a slice of a ByteBuffer into the bloom filter, unless it
+     * might already be present. The buffer's position and limit are not changed.
+     *
+     * @param bytes  buffer holding the value
+     * @param offset index of the first byte of the value
+     * @param length number of bytes of the value
+     * @return true if the value was inserted, false if it might already be present
+     * @throws NullPointerException      if bytes is null
+     * @throws IndexOutOfBoundsException if the slice is outside the buffer
+     */
+    public boolean insert(ByteBuffer bytes, int offset, int length) {
+        // NullPointerException and IndexOutOfBoundsException thrown by Murmur3 hash128
+        long[] hash = Murmur3.hash128(bytes, offset, length, SEED, Murmur3.scratch());
+        return insertHashed(hash[0], hash[1]);
+    }
+
+    /**
+     * Check if the value might be in the bloom filter. There are no false negatives, only
+     * false positives.
+     *
+     * @param value value to search for
+     * @return true if some stage holds every bit of the value, false if it was never inserted
+     * @throws NullPointerException if value is null
+     */
+    public boolean lookup(CharSequence value) {
+        if (value == null) {
+            // throws NullPointerException if value is null
+            throw new NullPointerException();
+        }
+
+        long[] hash = Murmur3.hash128(value, SEED, Murmur3.scratch());
+        return lookupHashed(hash[0], hash[1]);
+    }
+
+    /**
+     * Check if the value given as a slice of bytes might be in the bloom filter.
+     *
+     * @param bytes  buffer holding the value
+     * @param offset index of the first byte of the value
+     * @param length number of bytes of the value
+     * @return true if some stage holds every bit of the value, false if it was never inserted
+     * @throws NullPointerException      if bytes is null
+     * @throws IndexOutOfBoundsException if the slice is outside the buffer
+     */
+    public boolean lookup(byte[] bytes, int offset, int length) {
+        // NullPointerException and IndexOutOfBoundsException thrown by Murmur3 hash128
+        long[] hash = Murmur3.hash128(bytes, offset, length, SEED, Murmur3.scratch());
+        return lookupHashed(hash[0], hash[1]);
+    }
+
+    /**
+     * Check if the value given as a slice of a ByteBuffer might be in the bloom filter. The
+     * buffer's position and limit are not changed.
+     *
+     * @param bytes  buffer holding the value
+     * @param offset index of the first byte of the value
+     * @param length number of bytes of the value
+     * @return true if some stage holds every bit of the value, false if it was never inserted
+     * @throws NullPointerException      if bytes is null
+     * @throws IndexOutOfBoundsException if the slice is outside the buffer
+     */
+    public boolean lookup(ByteBuffer bytes, int offset, int length) {
+        // NullPointerException and IndexOutOfBoundsException thrown by Murmur3 hash128
+        long[] hash = Murmur3.hash128(bytes, offset, length, SEED, Murmur3.scratch());
+        return lookupHashed(hash[0], hash[1]);
+    }
+
+    /**
+     * Get the number of values inserted. Values rejected as possibly present are not counted.
+     *
+     * @return number of values inserted
+     */
+    public long size() {
+        return nElems;
+    }
+
+    /**
+     * Get the number of stages.
+     *
+     * @return number of stages
+     */
+    public int stageCount() {
+        return stages.size();
+    }
+
+    /**
+     * Get the number of bits in all stages together.
+     *
+     * @return total number of bits
+     */
+    public long bitSize() {
+        long bits = 0;
+        for (BloomFilter stage : stages) {
+            bits += stage.bitSize();
+        }
+        return bits;
+    }
+
+    /**
+     * Insert the value just hashed into the newest stage, adding a stage first if the newest
+     * one is full.
+     *
+     * @param h1 low half of the 128-bit Murmur3 hash of the value
+     * @param h2 high half of the 128-bit Murmur3 hash of the value
+     * @return true if the value was inserted, false if it might already be present
+     */
+    private boolean insertHashed(long h1, long h2) {
+        if (lookupHashed(h1, h2)) {
+            // Inserting a value again would only fill up the newest stage faster
+            return false;
+        }
+
+        if (stageSize >= stageCapacity) {
+            // Every stage is larger and stricter than the last, so the rates sum to at most fpp
+            stageCapacity = stageCapacity * GROWTH_FACTOR;
+            stageFpp = stageFpp * TIGHTENING_RATIO;
+            stages.add(new BloomFilter(stageCapacity, stageFpp));
+            stageSize = 0;
+        }
+        stages.get(stages.size() - 1).setBits(h1, h2);
+        stageSize++;
+        nElems++;
+        return true;
+    }
+
+    /**
+     * Check every stage for the value just hashed, newest first since it holds the most.
+     *
+     * @param h1 low half of the 128-bit Murmur3 hash of the value
+     * @param h2 high half of the 128-bit Murmur3 hash of the value
+     * @return true if some stage holds every bit of the value, false otherwise
+     */
+    private boolean lookupHashed(long h1, long h2) {
+        for (int i = stages.size() - 1; i >= 0; i--) {
+            if (stages.get(i).testBits(h1, h2)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
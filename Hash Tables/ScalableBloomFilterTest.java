@@ -0,0 +1,85 @@
+/*
+ * Name: Arjun Sawhney
+ */
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+/**
+ * ScalableBloomFilter Tester Class
+ *
+ * @author Arjun Sawhney
+ * @since 06/05/2020
+ */
+public class ScalableBloomFilterTest {
+    ScalableBloomFilter filter = new ScalableBloomFilter(1000, 0.01);
+
+    @Test
+    public void testConstructor() {
+        assertEquals(0, filter.size());
+        assertEquals(1, filter.stageCount());
+        assertFalse(filter.lookup("value"));
+    }
+
+    @Test
+    public void testGrowth() {
+        // 1000 + 2000 + 4000 + 8000 + 16000 values fill five stages
+        for (int i = 0; i < 31000; i++) {
+            filter.insert("value" + i);
+        }
+        assertEquals(5, filter.stageCount());
+        for (int i = 0; i < 31000; i++) {
+            assertTrue(filter.lookup("value" + i));
+        }
+        assertTrue(filter.size() > 30500 && filter.size() <= 31000);
+        assertFalse(filter.insert("value0"));
+    }
+
+    @Test
+    public void testFalsePositiveRateStaysBounded() {
+        // Fifty times the initial capacity, a fixed size filter would be saturated by now
+        for (int i = 0; i < 50000; i++) {
+            filter.insert("value" + i);
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100000; i++) {
+            if (filter.lookup("absent" + i)) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 1000);
+    }
+
+    @Test
+    public void testBytesAndStringsAreTheSameValue() {
+        byte[] framed = "[caf\u00E9]".getBytes(StandardCharsets.UTF_8);
+        assertTrue(filter.insert(framed, 1, framed.length - 2));
+        assertTrue(filter.lookup("caf\u00E9"));
+        assertFalse(filter.insert(ByteBuffer.wrap(framed), 1, framed.length - 2));
+        assertTrue(filter.lookup(ByteBuffer.wrap(framed), 1, framed.length - 2));
+        assertEquals(1, filter.size());
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void testConstructorThrowsIAE() {
+        filter = new ScalableBloomFilter(0, 0.01);
+        fail("Exception not thrown.");
+    }
+
+    @Test (expected = NullPointerException.class)
+    public void testInsertThrowsNPE() {
+        filter.insert(null);
+        fail("Exception not thrown.");
+    }
+
+    @Test (expected = NullPointerException.class)
+    public void testLookupThrowsNPE() {
+        filter.lookup(null);
+        fail("Exception not thrown.");
+    }
+}
@@ -0,0 +1,515 @@
+/*
+ * Name: Arjun Sawhney
+ */
+
+import java.util.Arrays;
+
+/**
+ * HashTable specialized for strings. Every key is copied as UTF-8 bytes into one contiguous
+ * byte arena, and the open addressing index only holds the offset, length and hash of each
+ * key in primitive arrays. No String, byte[] or node object is kept per key. Keys can be
+ * looked up as any CharSequence or as a slice of UTF-8 bytes, and neither form allocates.
+ *
+ * Unpaired surrogates in a CharSequence are encoded as '?', the same as String.getBytes does
+ * for UTF-8.
+ *
+ * @author Arjun Sawhney
+ * @since 06/05/2020
+ */
+public class StringHashTable implements HashTableInterface<CharSequence> {
+    // constants
+    public static final int RESIZE_FACTOR = HashTable.RESIZE_FACTOR; // resize factor
+    public static final int MIN_CAPACITY = HashTable.MIN_CAPACITY; // minimum initial capacity
+    public static final double MAX_LOAD_FACTOR = HashTable.MAX_LOAD_FACTOR; // maximum load
+    private static final int EMPTY = 0; // cached hash of an empty slot
+    private static final int OCCUPIED_BIT = Integer.MIN_VALUE; // keeps stored hashes non-zero
+    private static final int FNV_OFFSET = 0x811C9DC5; // FNV-1a starting value
+    private static final int FNV_PRIME = 0x01000193; // FNV-1a multiplier
+    private static final int MIN_ARENA = 64; // initial arena size in bytes
+    private static final byte REPLACEMENT = '?'; // byte written for an unpaired surrogate
+
+    // instance variables
+    private final DefaultHashStrategy<Object> mixer = new DefaultHashStrategy<>(); // seeded mix
+    private int[] hashes; // cached hash of the key in each slot, EMPTY if the slot is free
+    private long[] keys; // arena offset in the high 32 bits and length in the low 32 bits
+    private byte[] arena = new byte[MIN_ARENA]; // UTF-8 bytes of the keys, back to back
+    private int arenaUsed; // bytes of the arena written so far
+    private int deadBytes; // bytes of the arena belonging to deleted keys
+    private int nElems; // number of keys stored
+
+    /**
+     * Constructor for string hash table. The capacity is rounded up to a power of two.
+     *
+     * @param capacity initial capacity
+     * @throws IllegalArgumentException if capacity is less than the minimum
+     *                                  threshold
+     */
+    public StringHashTable(int capacity) {
+        if (capacity < MIN_CAPACITY) {
+            // throws IllegalArgumentException if capacity is less than the minimum threshold
+            throw new IllegalArgumentException();
+        }
+        hashes = new int[Integer.highestOneBit(capacity - 1) << 1];
+        keys = new long[hashes.length];
+    }
+
+    /**
+     * Insert the key into the hash table, copying its UTF-8 encoding into the arena.
+     *
+     * @param key key to insert
+     * @return true if the key was inserted, false if the key was already present
+     * @throws NullPointerException if the key is null
+     */
+    @Override
+    public boolean insert(CharSequence key) {
+        int hash = hash(key);
+        int index = findSlot(key, hash);
+        if (index >= 0) {
+            // False if the key already exists in the hash table
+            return false;
+        }
+
+        // Encode straight into the arena, no intermediate byte[] is needed
+        index = freeSlot(-index - 1, hash);
+        int length = utf8Length(key);
+        int offset = reserve(length);
+        int at = offset;
+        for (int i = 0; i < key.length(); i++) {
+            int c = Character.codePointAt(key, i);
+            if (Character.isSupplementaryCodePoint(c)) {
+                i++;
+            }
+            at = encode(c, arena, at);
+        }
+        store(index, hash, offset, length);
+        return true;
+    }
+
+    /**
+     * Insert the key given as a slice of UTF-8 bytes, copying it into the arena.
+     *
+     * @param utf8   buffer holding the key
+     * @param offset index of the first byte of the key
+     * @param length number of bytes of the key
+     * @return true if the key was inserted, false if the key was already present
+     * @throws NullPointerException      if the buffer is null
+     * @throws IndexOutOfBoundsException if the slice is outside the buffer
+     */
+    public boolean insert(byte[] utf8, int offset, int length) {
+        int hash = hash(utf8, offset, length);
+        int index = findSlot(utf8, offset, length, hash);
+        if (index >= 0) {
+            // False if the key already exists in the hash table
+            return false;
+        }
+
+        index = freeSlot(-index - 1, hash);
+        int start = reserve(length);
+        System.arraycopy(utf8, offset, arena, start, length);
+        store(index, hash, start, length);
+        return true;
+    }
+
+    /**
+     * Delete the given key from the hash table.
+     *
+     * @param key key to delete
+     * @return true if the key was deleted, false if the key was not found
+     * @throws NullPointerException if the key is null
+     */
+    @Override
+    public boolean delete(CharSequence key) {
+        return removeAt(findSlot(key, hash(key)));
+    }
+
+    /**
+     * Delete the key given as a slice of UTF-8 bytes.
+     *
+     * @param utf8   buffer holding the key
+     * @param offset index of the first byte of the key
+     * @param length number of bytes of the key
+     * @return true if the key was deleted, false if the key was not found
+     * @throws NullPointerException      if the buffer is null
+     * @throws IndexOutOfBoundsException if the slice is outside the buffer
+     */
+    public boolean delete(byte[] utf8, int offset, int length) {
+        return removeAt(findSlot(utf8, offset, length, hash(utf8, offset, length)));
+    }
+
+    /**
+     * Check if the given key is present in the hash table.
+     *
+     * @param key key to look up
+     * @return true if the key was found, false if the key was not found
+     * @throws NullPointerException if the key is null
+     */
+    @Override
+    public boolean lookup(CharSequence key) {
+        return findSlot(key, hash(key)) >= 0;
+    }
+
+    /**
+     * Check if the key given as a slice of UTF-8 bytes is present in the hash table.
+     *
+     * @param utf8   buffer holding the key
+     * @param offset index of the first byte of the key
+     * @param length number of bytes of the key
+     * @return true if the key was found, false if the key was not found
+     * @throws NullPointerException      if the buffer is null
+     * @throws IndexOutOfBoundsException if the slice is outside the buffer
+     */
+    public boolean lookup(byte[] utf8, int offset, int length) {
+        return findSlot(utf8, offset, length, hash(utf8, offset, length)) >= 0;
+    }
+
+    /**
+     * Get the total number of keys stored in the hash table.
+     *
+     * @return total number of keys
+     */
+    @Override
+    public int size() {
+        return nElems;
+    }
+
+    /**
+     * Get the capacity of the hash table.
+     *
+     * @return capacity
+     */
+    @Override
+    public int capacity() {
+        return hashes.length;
+    }
+
+    /**
+     * Get the number of arena bytes in use, including bytes of deleted keys that have not been
+     * compacted away yet.
+     *
+     * @return bytes of the arena in use
+     */
+    public int arenaBytes() {
+        return arenaUsed;
+    }
+
+    /**
+     * Hash of a CharSequence, equal to the hash of its UTF-8 bytes.
+     *
+     * @param key key to hash
+     * @return hash with the occupied bit set
+     * @throws NullPointerException if the key is null
+     */
+    private int hash(CharSequence key) {
+        if (key == null) {
+            // throws NullPointerException if the key is null
+            throw new NullPointerException();
+        }
+
+        // FNV-1a over the bytes the key encodes to, produced one code point at a time
+        int hash = FNV_OFFSET;
+        for (int i = 0; i < key.length(); i++) {
+            int c = Character.codePointAt(key, i);
+            if (c < 0x80) {
+                hash = (hash ^ c) * FNV_PRIME;
+                continue;
+            }
+            if (Character.isSupplementaryCodePoint(c)) {
+                i++;
+            }
+            int count = utf8Length(c);
+            for (int b = 0; b < count; b++) {
+                hash = (hash ^ (utf8Byte(c, count, b) & 0xFF)) * FNV_PRIME;
+            }
+        }
+        return mixer.mix(hash) | OCCUPIED_BIT;
+    }
+
+    /**
+     * Hash of a slice of UTF-8 bytes.
+     *
+     * @param utf8   buffer holding the key
+     * @param offset index of the first byte of the key
+     * @param length number of bytes of the key
+     * @return hash with the occupied bit set
+     * @throws IndexOutOfBoundsException if the slice is outside the buffer
+     */
+    private int hash(byte[] utf8, int offset, int length) {
+        if (offset < 0 || length < 0 || offset > utf8.length - length) {
+            // throws IndexOutOfBoundsException if the slice is outside the buffer
+            throw new IndexOutOfBoundsException();
+        }
+
+        int hash = FNV_OFFSET;
+        for (int i = offset; i < offset + length; i++) {
+            hash = (hash ^ (utf8[i] & 0xFF)) * FNV_PRIME;
+        }
+        return mixer.mix(hash) | OCCUPIED_BIT;
+    }
+
+    /**
+     * Find the slot holding the given key.
+     *
+     * @param key  key to find
+     * @param hash hash of the key
+     * @return index of the key, or (-(empty index) - 1) if the key is not stored
+     */
+    private int findSlot(CharSequence key, int hash) {
+        int mask = hashes.length - 1;
+        int index = hash & mask;
+
+        while (hashes[index] != EMPTY) {
+            if (hashes[index] == hash && equalsStored(key, keys[index])) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+        return -index - 1;
+    }
+
+    /**
+     * Find the slot holding the key given as a slice of UTF-8 bytes.
+     *
+     * @param utf8   buffer holding the key
+     * @param offset index of the first byte of the key
+     * @param length number of bytes of the key
+     * @param hash   hash of the key
+     * @return index of the key, or (-(empty index) - 1) if the key is not stored
+     */
+    private int findSlot(byte[] utf8, int offset, int length, int hash) {
+        int mask = hashes.length - 1;
+        int index = hash & mask;
+
+        while (hashes[index] != EMPTY) {
+            if (hashes[index] == hash && (int) keys[index] == length) {
+                int start = (int) (keys[index] >>> Integer.SIZE);
+                if (Arrays.equals(arena, start, start + length, utf8, offset, offset + length)) {
+                    return index;
+                }
+            }
+            index = (index + 1) & mask;
+        }
+        return -index - 1;
+    }
+
+    /**
+     * Compare a CharSequence with a stored key by encoding it on the fly.
+     *
+     * @param key    key being looked up
+     * @param stored offset and length of a stored key
+     * @return true if the key encodes to exactly the stored bytes
+     */
+    private boolean equalsStored(CharSequence key, long stored) {
+        int at = (int) (stored >>> Integer.SIZE);
+        int end = at + (int) stored;
+
+        for (int i = 0; i < key.length(); i++) {
+            int c = Character.codePointAt(key, i);
+            if (Character.isSupplementaryCodePoint(c)) {
+                i++;
+            }
+            int count = utf8Length(c);
+            if (end - at < count) {
+                return false;
+            }
+            for (int b = 0; b < count; b++) {
+                if (arena[at++] != utf8Byte(c, count, b)) {
+                    return false;
+                }
+            }
+        }
+        return at == end;
+    }
+
+    /**
+     * Number of UTF-8 bytes a CharSequence encodes to.
+     *
+     * @param key key to measure
+     * @return encoded length
+     */
+    private static int utf8Length(CharSequence key) {
+        int length = 0;
+        for (int i = 0; i < key.length(); i++) {
+            int c = Character.codePointAt(key, i);
+            if (Character.isSupplementaryCodePoint(c)) {
+                i++;
+            }
+            length += utf8Length(c);
+        }
+        return length;
+    }
+
+    /**
+     * Number of UTF-8 bytes a code point encodes to. An unpaired surrogate becomes one byte.
+     *
+     * @param c code point
+     * @return encoded length
+     */
+    private static int utf8Length(int c) {
+        if (c < 0x80 || (c <= Character.MAX_VALUE && Character.isSurrogate((char) c))) {
+            return 1;
+        } else if (c < 0x800) {
+            return 2;
+        } else if (c < 0x10000) {
+            return 3;
+        }
+        return 4;
+    }
+
+    /**
+     * One byte of the UTF-8 encoding of a code point.
+     *
+     * @param c     code point
+     * @param count encoded length of the code point
+     * @param b     index of the byte, from 0 to count - 1
+     * @return the encoded byte
+     */
+    private static byte utf8Byte(int c, int count, int b) {
+        if (count == 1) {
+            return c < 0x80 ? (byte) c : REPLACEMENT;
+        } else if (b == 0) {
+            // Leading byte: count high bits set, then the top bits of the code point
+            return (byte) ((0xFF00 >> count) | (c >>> (6 * (count - 1))));
+        }
+        // Continuation byte: 10 followed by the next 6 bits
+        return (byte) (0x80 | ((c >>> (6 * (count - 1 - b))) & 0x3F));
+    }
+
+    /**
+     * Write the UTF-8 encoding of a code point.
+     *
+     * @param c    code point
+     * @param dest destination buffer
+     * @param at   index of the first byte to write
+     * @return index after the last byte written
+     */
+    private static int encode(int c, byte[] dest, int at) {
+        int count = utf8Length(c);
+        for (int b = 0; b < count; b++) {
+            dest[at++] = utf8Byte(c, count, b);
+        }
+        return at;
+    }
+
+    /**
+     * Make room at the end of the arena for a key, growing it if needed.
+     *
+     * @param length bytes needed
+     * @return arena offset of the reserved bytes
+     */
+    private int reserve(int length) {
+        if (arena.length - arenaUsed < length) {
+            arena = Arrays.copyOf(arena, Math.max(arena.length * RESIZE_FACTOR,
+                    arenaUsed + length));
+        }
+        int offset = arenaUsed;
+        arenaUsed += length;
+        return offset;
+    }
+
+    /**
+     * Get the empty slot for a new key, growing the index first if the load factor is greater
+     * than ⅔. Must be called before the key is written to the arena, since growing compacts it.
+     *
+     * @param index empty slot found by the probe
+     * @param hash  hash of the key
+     * @return empty slot to store the key in
+     */
+    private int freeSlot(int index, int hash) {
+        if ((double) nElems / capacity() > MAX_LOAD_FACTOR) {
+            // Find the free slot again in the larger index
+            rehash(capacity() * RESIZE_FACTOR);
+            int mask = capacity() - 1;
+            index = hash & mask;
+            while (hashes[index] != EMPTY) {
+                index = (index + 1) & mask;
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Record a key already written to the arena in an empty slot.
+     *
+     * @param index  empty slot
+     * @param hash   hash of the key
+     * @param offset arena offset of the key
+     * @param length bytes of the key
+     */
+    private void store(int index, int hash, int offset, int length) {
+        hashes[index] = hash;
+        keys[index] = (long) offset << Integer.SIZE | length;
+        nElems++;
+    }
+
+    /**
+     * Empty a slot and move back any later key whose probe passed through it. Compacts the
+     * arena once deleted keys take up more than half of it.
+     *
+     * @param index slot to empty, or a negative probe result
+     * @return true if a key was removed
+     */
+    private boolean removeAt(int index) {
+        if (index < 0) {
+            // False if the key does not exist in the hash table
+            return false;
+        }
+
+        deadBytes += (int) keys[index];
+        int mask = hashes.length - 1;
+        int next = index;
+        while (true) {
+            next = (next + 1) & mask;
+            if (hashes[next] == EMPTY) {
+                break;
+            }
+            // Distance from the home slot of the key at next, compared against the hole
+            if (((next - hashes[next]) & mask) >= ((next - index) & mask)) {
+                hashes[index] = hashes[next];
+                keys[index] = keys[next];
+                index = next;
+            }
+        }
+        hashes[index] = EMPTY;
+        nElems--;
+
+        if (deadBytes > arenaUsed / 2 && arenaUsed > MIN_ARENA) {
+            rehash(capacity());
+        }
+        return true;
+    }
+
+    /**
+     * Rebuild the index with the given capacity and copy the live keys into a fresh arena
+     * sized for them, dropping the bytes of deleted keys.
+     *
+     * @param length new capacity, a power of two
+     */
+    private void rehash(int length) {
+        int[] oldHashes = hashes;
+        long[] oldKeys = keys;
+        byte[] oldArena = arena;
+        hashes = new int[length];
+        keys = new long[length];
+        arena = new byte[Math.max(MIN_ARENA, (arenaUsed - deadBytes) * RESIZE_FACTOR)];
+        arenaUsed = 0;
+        deadBytes = 0;
+
+        // Keys are unique, so each one only needs the first free slot from its home
+        int mask = length - 1;
+        for (int i = 0; i < oldHashes.length; i++) {
+            if (oldHashes[i] != EMPTY) {
+                int keyLength = (int) oldKeys[i];
+                int offset = reserve(keyLength);
+                System.arraycopy(oldArena, (int) (oldKeys[i] >>> Integer.SIZE), arena, offset,
+                        keyLength);
+
+                int index = oldHashes[i] & mask;
+                while (hashes[index] != EMPTY) {
+                    index = (index + 1) & mask;
+                }
+                hashes[index] = oldHashes[i];
+                keys[index] = (long) offset << Integer.SIZE | keyLength;
+            }
+        }
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Name: Arjun Sawhney
+ */
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+/**
+ * StringHashTable Tester Class
+ *
+ * @author Arjun Sawhney
+ * @since 06/05/2020
+ */
+public class StringHashTableTest {
+    StringHashTable hashTable = new StringHashTable(12);
+
+    @Test
+    public void testConstructor() {
+        assertEquals(0, hashTable.size());
+        assertEquals(16, hashTable.capacity());
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void testConstructorThrowsIAE() {
+        hashTable = new StringHashTable(8);
+        fail("Exception not thrown.");
+    }
+
+    @Test
+    public void testInsertAndDelete() {
+        for (int i = 0; i < 1000; i++) {
+            assertFalse(hashTable.lookup("id" + i));
+            assertTrue(hashTable.insert("id" + i));
+            assertTrue(hashTable.lookup("id" + i));
+            assertFalse(hashTable.insert(new StringBuilder("id").append(i)));
+        }
+        assertEquals(1000, hashTable.size());
+
+        for (int i = 0; i < 1000; i += 2) {
+            assertTrue(hashTable.delete("id" + i));
+            assertFalse(hashTable.delete("id" + i));
+        }
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i % 2 == 1, hashTable.lookup("id" + i));
+        }
+        assertEquals(500, hashTable.size());
+    }
+
+    @Test
+    public void testByteSlices() {
+        byte[] buffer = "xxhello worldxx".getBytes(StandardCharsets.UTF_8);
+        assertTrue(hashTable.insert(buffer, 2, 5));
+        assertTrue(hashTable.lookup("hello"));
+        assertTrue(hashTable.insert("world"));
+        assertTrue(hashTable.lookup(buffer, 8, 5));
+        assertFalse(hashTable.lookup(buffer, 8, 4));
+        assertTrue(hashTable.delete(buffer, 8, 5));
+        assertFalse(hashTable.lookup("world"));
+    }
+
+    @Test
+    public void testNonAscii() {
+        String[] keys = {"café", "日本", "😀", "a\ud800b", ""};
+        for (String key : keys) {
+            assertTrue(hashTable.insert(key));
+        }
+        for (String key : keys) {
+            // A CharSequence and its UTF-8 bytes are the same key
+            byte[] utf8 = key.getBytes(StandardCharsets.UTF_8);
+            assertTrue(hashTable.lookup(utf8, 0, utf8.length));
+            assertFalse(hashTable.insert(utf8, 0, utf8.length));
+        }
+        assertFalse(hashTable.lookup("cafe"));
+        assertEquals(keys.length, hashTable.size());
+    }
+
+    @Test
+    public void testArenaCompaction() {
+        for (int i = 0; i < 1000; i++) {
+            hashTable.insert("identifier" + i);
+        }
+        int used = hashTable.arenaBytes();
+        for (int i = 0; i < 900; i++) {
+            hashTable.delete("identifier" + i);
+        }
+
+        // Bytes of deleted keys are dropped once they take up most of the arena
+        assertTrue(hashTable.arenaBytes() < used / 2);
+        for (int i = 900; i < 1000; i++) {
+            assertTrue(hashTable.lookup("identifier" + i));
+        }
+    }
+
+    @Test (expected = NullPointerException.class)
+    public void testInsertThrowsNPE() {
+        hashTable.insert(null);
+        fail("Exception not thrown.");
+    }
+
+    @Test (expected = IndexOutOfBoundsException.class)
+    public void testLookUpThrowsIOOBE() {
+        hashTable.lookup(new byte[4], 2, 3);
+        fail("Exception not thrown.");
+    }
+}
@@ -0,0 +1,321 @@
+/*
+ * Name: Arjun Sawhney
+ */
+
+import java.util.Arrays;
+
+/**
+ * Generic HashTable in the style of a Swiss table. Every slot has a control byte holding either
+ * EMPTY, DELETED, or the low 7 bits of the value's hash. Control bytes are packed eight to a
+ * long, so one probe compares a whole group of eight slots with a few SWAR bit operations, and
+ * the value array is only read for slots whose 7 hash bits already match. Most lookups of
+ * absent values end after a single group without touching any value.
+ *
+ * @param <T> Generic type of value
+ * @author Arjun Sawhney
+ * @since 06/05/2020
+ */
+public class SwissHashTable<T> implements HashTableInterface<T> {
+    // constants
+    public static final int RESIZE_FACTOR = HashTable.RESIZE_FACTOR; // resize factor
+    public static final int MIN_CAPACITY = HashTable.MIN_CAPACITY; // minimum initial capacity
+    public static final double MAX_LOAD_FACTOR = (double) 7 / 8; // maximum load factor
+    public static final int GROUP_WIDTH = Long.BYTES; // slots probed together
+    private static final long EMPTY = 0x80; // control byte of a never used slot
+    private static final long DELETED = 0xFE; // control byte of a tombstone
+    private static final long LSB = 0x0101010101010101L; // lowest bit of every byte
+    private static final long MSB = 0x8080808080808080L; // highest bit of every byte
+    private static final int H2_BITS = 7; // hash bits kept in a control byte
+    private static final int H2_MASK = 0x7F; // mask of the hash bits kept in a control byte
+
+    // instance variables
+    private final HashStrategy<? super T> strategy; // hashing and equality of values
+    private long[] ctrl; // control bytes, GROUP_WIDTH slots per long
+    private Object[] slots; // data storage
+    private int nElems; // number of elements stored
+    private int nDeleted; // number of tombstones
+
+    /**
+     * Constructor for Swiss hash table.
+     *
+     * @param capacity initial capacity, rounded up to a power of two
+     * @throws IllegalArgumentException if capacity is less than the minimum
+     *                                  threshold
+     */
+    public SwissHashTable(int capacity) {
+        this(capacity, new DefaultHashStrategy<>());
+    }
+
+    /**
+     * Constructor for Swiss hash table with a custom hashing and equality strategy.
+     *
+     * @param capacity initial capacity, rounded up to a power of two
+     * @param strategy hashing and equality of values
+     * @throws IllegalArgumentException if capacity is less than the minimum
+     *                                  threshold
+     * @throws NullPointerException     if strategy is null
+     */
+    public SwissHashTable(int capacity, HashStrategy<? super T> strategy) {
+        if (strategy == null) {
+            // throws NullPointerException if the strategy is null
+            throw new NullPointerException();
+        } else if (capacity < MIN_CAPACITY) {
+            // throws IllegalArgumentException if capacity is less than the minimum threshold
+            throw new IllegalArgumentException();
+        }
+
+        this.strategy = strategy;
+        allocate(Integer.highestOneBit((capacity - 1) / GROUP_WIDTH) << 1);
+    }
+
+    /**
+     * Insert the value into the hash table.
+     *
+     * @param value value to insert
+     * @return true if the value was inserted, false if the value was already
+     *         present
+     * @throws NullPointerException if the value is null
+     */
+    @Override
+    public boolean insert(T value) {
+        int hash = hashValue(value);
+        if (findSlot(value, hash) >= 0) {
+            // False if the value already exists in the hash table
+            return false;
+        }
+
+        if ((double) (nElems + nDeleted + 1) / capacity() > MAX_LOAD_FACTOR) {
+            // Before insertion, rehash if tombstones and values fill more than ⅞ of the slots
+            rehash();
+        }
+        place(value, hash);
+        nElems++;
+        return true;
+    }
+
+    /**
+     * Delete the given value from the hash table.
+     *
+     * @param value value to delete
+     * @return true if the value was deleted, false if the value was not found
+     * @throws NullPointerException if the value is null
+     */
+    @Override
+    public boolean delete(T value) {
+        int slot = findSlot(value, hashValue(value));
+        if (slot < 0) {
+            // False if the value does not exist in the hash table
+            return false;
+        }
+
+        // A group that still has an empty slot already stops every probe passing through it, so
+        // the slot can become empty again. Otherwise later values may be behind it
+        int group = slot / GROUP_WIDTH;
+        if (matchEmpty(ctrl[group]) != 0) {
+            setCtrl(slot, EMPTY);
+        } else {
+            setCtrl(slot, DELETED);
+            nDeleted++;
+        }
+        slots[slot] = null;
+        nElems--;
+        return true;
+    }
+
+    /**
+     * Check if the given value is present in the hash table.
+     *
+     * @param value value to look up
+     * @return true if the value was found, false if the value was not found
+     * @throws NullPointerException if the value is null
+     */
+    @Override
+    public boolean lookup(T value) {
+        return findSlot(value, hashValue(value)) >= 0;
+    }
+
+    /**
+     * Get the total number of elements stored in the hash table.
+     *
+     * @return total number of elements
+     */
+    @Override
+    public int size() {
+        return nElems;
+    }
+
+    /**
+     * Get the capacity of the hash table.
+     *
+     * @return capacity
+     */
+    @Override
+    public int capacity() {
+        return slots.length;
+    }
+
+    /**
+     * Hash function calculated by the hash strategy.
+     *
+     * @param value input
+     * @return hash of the value
+     * @throws NullPointerException if the value is null
+     */
+    private int hashValue(T value) {
+        if (value == null) {
+            // throws NullPointerException if the value is null
+            throw new NullPointerException();
+        }
+        return strategy.hash(value);
+    }
+
+    /**
+     * Bytes of the group that equal h2. May report a false match in the byte after a real
+     * match, which the equality check filters out, but never misses one.
+     *
+     * @param group eight control bytes
+     * @param h2    7 hash bits to look for
+     * @return high bit set in every matching byte
+     */
+    private static long match(long group, int h2) {
+        long x = group ^ (LSB * h2);
+        return (x - LSB) & ~x & MSB;
+    }
+
+    /**
+     * Bytes of the group that are EMPTY. EMPTY is the only control byte with the high bit set
+     * and bit 1 clear.
+     *
+     * @param group eight control bytes
+     * @return high bit set in every empty byte
+     */
+    private static long matchEmpty(long group) {
+        return group & (~group << 6) & MSB;
+    }
+
+    /**
+     * Bytes of the group that are EMPTY or DELETED, the only control bytes with the high bit
+     * set.
+     *
+     * @param group eight control bytes
+     * @return high bit set in every free byte
+     */
+    private static long matchFree(long group) {
+        return group & MSB;
+    }
+
+    /**
+     * Slot of the lowest byte flagged in a match.
+     *
+     * @param group index of the group
+     * @param match result of a match function
+     * @return slot index
+     */
+    private static int lowestSlot(int group, long match) {
+        return group * GROUP_WIDTH + (Long.numberOfTrailingZeros(match) >>> 3);
+    }
+
+    /**
+     * Find the slot holding the given value. Groups are visited in triangular order, which
+     * reaches every group of a power-of-two table.
+     *
+     * @param value value to find
+     * @param hash  hash of the value
+     * @return index of the value, or -1 if the value is not stored
+     */
+    @SuppressWarnings("unchecked")
+    private int findSlot(T value, int hash) {
+        int mask = ctrl.length - 1;
+        int h2 = hash & H2_MASK;
+        int group = (hash >>> H2_BITS) & mask;
+
+        for (int step = 1; ; step++) {
+            long controls = ctrl[group];
+            for (long m = match(controls, h2); m != 0; m &= m - 1) {
+                int slot = lowestSlot(group, m);
+                if (strategy.equals(value, (T) slots[slot])) {
+                    return slot;
+                }
+            }
+            if (matchEmpty(controls) != 0) {
+                // An empty slot means the value was never pushed further along the sequence
+                return -1;
+            }
+            group = (group + step) & mask;
+        }
+    }
+
+    /**
+     * Put a value that is not yet stored into the first free slot of its probe sequence.
+     *
+     * @param value value to place
+     * @param hash  hash of the value
+     */
+    private void place(Object value, int hash) {
+        int mask = ctrl.length - 1;
+        int group = (hash >>> H2_BITS) & mask;
+
+        for (int step = 1; matchFree(ctrl[group]) == 0; step++) {
+            group = (group + step) & mask;
+        }
+
+        int slot = lowestSlot(group, matchFree(ctrl[group]));
+        if (ctrlAt(slot) == DELETED) {
+            nDeleted--;
+        }
+        setCtrl(slot, hash & H2_MASK);
+        slots[slot] = value;
+    }
+
+    /**
+     * Control byte of a slot.
+     *
+     * @param slot slot index
+     * @return control byte
+     */
+    private long ctrlAt(int slot) {
+        return (ctrl[slot / GROUP_WIDTH] >>> (slot % GROUP_WIDTH * Byte.SIZE)) & 0xFF;
+    }
+
+    /**
+     * Overwrite the control byte of a slot.
+     *
+     * @param slot    slot index
+     * @param control new control byte
+     */
+    private void setCtrl(int slot, long control) {
+        int shift = slot % GROUP_WIDTH * Byte.SIZE;
+        int group = slot / GROUP_WIDTH;
+        ctrl[group] = (ctrl[group] & ~(0xFFL << shift)) | (control << shift);
+    }
+
+    /**
+     * Allocate empty storage for the given number of groups.
+     *
+     * @param groups number of groups, a power of two
+     */
+    private void allocate(int groups) {
+        ctrl = new long[groups];
+        Arrays.fill(ctrl, EMPTY * LSB);
+        slots = new Object[groups * GROUP_WIDTH];
+        nDeleted = 0;
+    }
+
+    /**
+     * Rebuild the table, doubling it unless most of the used slots are tombstones, in which
+     * case the same size is reused and the tombstones are simply dropped.
+     */
+    @SuppressWarnings("unchecked")
+    private void rehash() {
+        Object[] oldSlots = slots;
+        long[] oldCtrl = ctrl;
+        boolean grow = nElems >= nDeleted;
+        allocate(grow ? oldCtrl.length * RESIZE_FACTOR : oldCtrl.length);
+
+        for (int i = 0; i < oldSlots.length; i++) {
+            if (((oldCtrl[i / GROUP_WIDTH] >>> (i % GROUP_WIDTH * Byte.SIZE)) & 0x80) == 0) {
+                place(oldSlots[i], hashValue((T) oldSlots[i]));
+            }
+        }
+    }
+}
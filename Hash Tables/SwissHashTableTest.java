@@ -0,0 +1,109 @@
+/*
+ * Name: Arjun Sawhney
+ */
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * SwissHashTable Tester Class
+ *
+ * @author Arjun Sawhney
+ * @since 06/05/2020
+ */
+public class SwissHashTableTest {
+    SwissHashTable<Integer> hashTable = new SwissHashTable<>(12);
+
+    @Test
+    public void testConstructor() {
+        assertEquals(0, hashTable.size());
+        assertEquals(16, hashTable.capacity());
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void testConstructorThrowsIAE() {
+        hashTable = new SwissHashTable<>(8);
+        fail("Exception not thrown.");
+    }
+
+    @Test
+    public void testInsert() {
+        for (int i = 0; i < 10000; i++) {
+            assertFalse(hashTable.lookup(i));
+            assertTrue(hashTable.insert(i));
+            assertTrue(hashTable.lookup(i));
+            assertFalse(hashTable.insert(i));
+            assertEquals(i + 1, hashTable.size());
+        }
+        for (int i = 0; i < 10000; i++) {
+            assertTrue(hashTable.lookup(i));
+        }
+        assertTrue(hashTable.size() <= hashTable.capacity() * SwissHashTable.MAX_LOAD_FACTOR);
+    }
+
+    @Test
+    public void testDelete() {
+        testInsert();
+
+        for (int i = 0; i < 10000; i += 2) {
+            assertTrue(hashTable.delete(i));
+            assertFalse(hashTable.delete(i));
+        }
+        for (int i = 0; i < 10000; i++) {
+            assertEquals(i % 2 == 1, hashTable.lookup(i));
+        }
+        assertEquals(5000, hashTable.size());
+    }
+
+    @Test
+    public void testTombstones() {
+        // Churning through many values at a steady size must reuse slots instead of growing
+        for (int i = 0; i < 100000; i++) {
+            assertTrue(hashTable.insert(i));
+            if (i >= 8) {
+                assertTrue(hashTable.delete(i - 8));
+            }
+        }
+        assertEquals(8, hashTable.size());
+        assertTrue(hashTable.capacity() <= 32);
+        for (int i = 100000 - 8; i < 100000; i++) {
+            assertTrue(hashTable.lookup(i));
+        }
+    }
+
+    @Test
+    public void testIdenticalHashes() {
+        // Every value shares one hash code and so one control byte value and probe sequence
+        HashTableInterface<Integer> same = new SwissHashTable<>(10, new HashStrategy<Integer>() {
+            @Override
+            public int hash(Integer value) {
+                return 0;
+            }
+
+            @Override
+            public boolean equals(Integer a, Integer b) {
+                return a.equals(b);
+            }
+        });
+        for (int i = 0; i < 50; i++) {
+            assertTrue(same.insert(i));
+        }
+        for (int i = 0; i < 50; i++) {
+            assertTrue(same.delete(i));
+        }
+        assertEquals(0, same.size());
+    }
+
+    @Test (expected = NullPointerException.class)
+    public void testInsertThrowsNPE() {
+        hashTable.insert(null);
+        fail("Exception not thrown.");
+    }
+
+    @Test (expected = NullPointerException.class)
+    public void testLookUpThrowsNPE() {
+        hashTable.lookup(null);
+        fail("Exception not thrown.");
+    }
+}